@@ -0,0 +1,445 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  BacktrackSolver counts the mine layouts of a big, tangled
+ *  frontier, remembering the parts it has already counted.
+ *
+ *  Example: java BacktrackSolver          # hard 60 x 90 frontiers
+ *  Example: java BacktrackSolver 4 8 64   # table sizes in MB
+ *----------------------------------------------------------------*/
+
+import java.util.Random;
+
+/**
+ * A <i>BacktrackSolver</i> counts the ways to put mines on a set of frontier
+ * cells (the variables) so that every number touching them (the
+ * constraints) is met, for each possible number of mines, and how many of
+ * those ways put a mine on each variable. It is what the ProbabilityEngine
+ * uses for components too big to enumerate one layout at a time.
+ *
+ * It assigns the variables one at a time, like a plain search, but the part
+ * of the problem that is left after some are set only depends on which ones
+ * are set and on how many mines each constraint still needs, not on how it
+ * got there. Many partial assignments end up in the same place, so the
+ * counts for what is left are kept in a transposition table and reused.
+ *
+ * The place in the search is the bitmask of the variables set so far, and
+ * the mines each constraint still needs. It is identified by its Zobrist
+ * hash: the XOR of a random 64-bit key for each variable set, and one for
+ * each constraint and the number it still needs. Setting a variable changes
+ * a few of these, so the hash is kept up to date with a few XORs.
+ *
+ * The table is a fixed block of plain arrays, keyed by the hash and sized
+ * to fill a memory budget. Its slots are in pairs, and the top bits of the
+ * hash pick a pair by multiplying rather than masking, so the number of
+ * pairs need not be a power of two. Each hash has the two slots of its pair
+ * it can go in. When both are
+ * full, the one that took less work to count is replaced, and anything left
+ * from an earlier problem goes first. The counts are stored in one big
+ * double[] with a row per slot, so nothing is allocated while searching.
+ *
+ * To count the ways with a mine on variable q, it runs the search again with
+ * q set first. Once the search has passed q's place in the usual order, the
+ * variables set are the same as in the first run, so the rest is found in
+ * the table.
+ */
+public class BacktrackSolver {
+
+    /**
+     * The most variables a problem can have, which sets the row length of
+     * the table.
+     */
+    public static final int MAX_VARS = 64;
+
+    /**
+     * Default size of the table, in bytes.
+     */
+    public static final long DEFAULT_MEMORY = 16L << 20;
+
+    // Bytes per slot: the key, the mask, the work, the problem number, the
+    // length and the row of counts.
+    private static final int SLOT_BYTES = 8 + 8 + 4 + 4 + 1 + 8 * (MAX_VARS + 1);
+
+    // The transposition table. Slot s holds counts[s * ROW ...] with
+    // length[s] entries, or nothing if length[s] is 0.
+    private static final int ROW = MAX_VARS + 1;
+    private final long[] keys, masks;
+    private final int[] work, problemOf;
+    private final byte[] length;
+    private final double[] counts;
+    private final long pairs;
+
+    // The problem being solved, numbered so old entries can be spotted.
+    private int problem, n, numCons;
+    private int[] varConStart = new int[1], varCons = new int[0];
+    private int[] need = new int[0], free = new int[0];
+    private long[] zVar = new long[0], zNeed = new long[0];
+    private long keySeed;
+
+    // The search: the order to set variables in, the bitmask of which are
+    // set, and the hash of where it is. The mask is kept in the table too,
+    // as a check against two places having the same hash.
+    private final int[] order = new int[MAX_VARS];
+    private long setMask;
+    private long hash;
+    private final double[][] result = new double[MAX_VARS + 1][MAX_VARS + 1];
+    private volatile long deadline;
+    private boolean timedOut;
+
+    private long nodes, probes, hits, stores, evictions;
+
+    /**
+     * Create a solver with a table of the default size.
+     */
+    public BacktrackSolver() {
+        this(DEFAULT_MEMORY);
+    }
+
+    /**
+     * Create a solver whose table takes about the given number of bytes: as
+     * many pairs of slots as fit, up to 1 << 23 of them.
+     */
+    public BacktrackSolver(long memoryBytes) {
+        int slots = (int)Math.max(2, Math.min(1 << 24, memoryBytes / SLOT_BYTES)) & ~1;
+        keys = new long[slots];
+        masks = new long[slots];
+        work = new int[slots];
+        problemOf = new int[slots];
+        length = new byte[slots];
+        counts = new double[slots * ROW];
+        pairs = slots / 2;
+    }
+
+    /**
+     * Set up a problem of n variables, numbered 0 to n - 1, and numCons
+     * constraints. Constraint j needs need[j] mines among the variables
+     * consVars[consStart[j]] up to (but not including)
+     * consVars[consStart[j + 1]]. Variables are set in number order, so
+     * numbering them so that neighbors are close makes the search faster.
+     */
+    public void load(int n, int numCons, int[] consStart, int[] consVars, int[] need) {
+        if (n > MAX_VARS)
+            throw new IllegalArgumentException(n + " variables is more than " + MAX_VARS);
+        this.n = n;
+        this.numCons = numCons;
+        problem++;
+
+        // Turn the constraint lists around, to list each variable's
+        // constraints.
+        varConStart = new int[n + 1];
+        for (int k = 0; k < consStart[numCons]; k++)
+            varConStart[consVars[k] + 1]++;
+        for (int v = 0; v < n; v++)
+            varConStart[v + 1] += varConStart[v];
+        varCons = new int[consStart[numCons]];
+        int[] next = java.util.Arrays.copyOf(varConStart, n);
+        for (int j = 0; j < numCons; j++)
+            for (int k = consStart[j]; k < consStart[j + 1]; k++)
+                varCons[next[consVars[k]]++] = j;
+        this.need = java.util.Arrays.copyOf(need, numCons);
+        free = new int[numCons];
+        for (int j = 0; j < numCons; j++)
+            free[j] = consStart[j + 1] - consStart[j];
+
+        // Fresh Zobrist keys, so nothing from an earlier problem matches.
+        zVar = new long[n];
+        for (int v = 0; v < n; v++)
+            zVar[v] = nextKey();
+        zNeed = new long[numCons * 9];
+        for (int k = 0; k < zNeed.length; k++)
+            zNeed[k] = nextKey();
+    }
+
+    private long nextKey() {
+        return EndlessBoard.mix64(++keySeed * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Count the layouts of the loaded problem. Afterwards ways[k] is the
+     * number with k mines, and hits[q * (n + 1) + k] the number of those
+     * with a mine on variable q. Returns false, leaving them part filled, if
+     * it was still going at the deadline, a System.nanoTime() value.
+     */
+    public boolean count(double[] ways, double[] hits, long deadline) {
+        this.deadline = deadline;
+        timedOut = false;
+
+        // The starting hash: every constraint with its full need.
+        long start = 0;
+        for (int j = 0; j < numCons; j++)
+            start ^= zNeed[j * 9 + need[j]];
+
+        for (int q = -1; q < n; q++) {
+            // Set q first, then the rest in order.
+            int p = 0;
+            if (q >= 0)
+                order[p++] = q;
+            for (int v = 0; v < n; v++)
+                if (v != q)
+                    order[p++] = v;
+            hash = start;
+            setMask = 0;
+
+            double[] out = result[0];
+            java.util.Arrays.fill(out, 0, n + 1, 0.0);
+            if (q < 0) {
+                search(0, out);
+                System.arraycopy(out, 0, ways, 0, n + 1);
+            } else {
+                // Only the branch with a mine on q.
+                if (set(q, 1))
+                    search(1, result[1], out, 1);
+                unset(q, 1);
+                System.arraycopy(out, 0, hits, q * (n + 1), n + 1);
+            }
+            if (timedOut)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Make a count() running on another thread stop soon, as if it had
+     * reached its deadline.
+     */
+    public void cancel() {
+        deadline = Long.MIN_VALUE;
+    }
+
+    // Count the ways to set order[p] onward, by number of mines, into out.
+    private void search(int p, double[] out) {
+        java.util.Arrays.fill(out, 0, n - p + 1, 0.0);
+        if (p == n) {
+            out[0] = 1;
+            return;
+        }
+        if ((++nodes & 0xFFF) == 0 && System.nanoTime() > deadline)
+            timedOut = true;
+        if (timedOut)
+            return;
+
+        long key = hash;
+        if (probe(key, setMask, out))
+            return;
+        long before = nodes;
+        int v = order[p];
+        for (int x = 0; x <= 1; x++) {
+            if (set(v, x))
+                search(p + 1, result[p + 1], out, x);
+            unset(v, x);
+        }
+        if (!timedOut)
+            store(key, setMask, out, n - p + 1, nodes - before);
+    }
+
+    // Count order[p] onward into sub, then add it to out shifted by x.
+    private void search(int p, double[] sub, double[] out, int x) {
+        search(p, sub);
+        for (int k = 0; k <= n - p; k++)
+            out[k + x] += sub[k];
+    }
+
+    // Set variable v to x, updating the needs, the mask and the hash. Returns
+    // false if some constraint can no longer be met.
+    private boolean set(int v, int x) {
+        setMask |= 1L << v;
+        hash ^= zVar[v];
+        boolean ok = true;
+        for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+            int j = varCons[k];
+            if (x == 1) {
+                if (need[j] > 0)
+                    hash ^= zNeed[j * 9 + need[j]] ^ zNeed[j * 9 + need[j] - 1];
+                need[j]--;
+            }
+            free[j]--;
+            if (need[j] < 0 || need[j] > free[j])
+                ok = false;
+        }
+        return ok;
+    }
+
+    private void unset(int v, int x) {
+        setMask &= ~(1L << v);
+        hash ^= zVar[v];
+        for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+            int j = varCons[k];
+            if (x == 1) {
+                need[j]++;
+                if (need[j] > 0)
+                    hash ^= zNeed[j * 9 + need[j]] ^ zNeed[j * 9 + need[j] - 1];
+            }
+            free[j]++;
+        }
+    }
+
+    // Look for a key in its two slots, and copy its counts to out if found.
+    private boolean probe(long key, long set, double[] out) {
+        probes++;
+        int s = pairOf(key);
+        if (!holds(s, key, set))
+            s++;
+        if (!holds(s, key, set))
+            return false;
+        hits++;
+        System.arraycopy(counts, s * ROW, out, 0, length[s]);
+        return true;
+    }
+
+    // The first slot of the pair a key goes in: its top 32 bits, as a
+    // fraction, times the number of pairs.
+    private int pairOf(long key) {
+        return (int)(((key >>> 32) * pairs) >>> 32) << 1;
+    }
+
+    private boolean holds(int s, long key, long set) {
+        return keys[s] == key && masks[s] == set && length[s] != 0 && problemOf[s] == problem;
+    }
+
+    // Keep the counts for a key, replacing whichever of its two slots is
+    // worth less: an empty one or one from an old problem first, then the
+    // one that took less work.
+    private void store(long key, long set, double[] out, int len, long effort) {
+        int s = pairOf(key);
+        int w = (int)Math.min(Integer.MAX_VALUE, effort);
+        if (worth(s + 1) < worth(s))
+            s++;
+        if (length[s] != 0 && problemOf[s] == problem) {
+            if (work[s] > w)
+                return;
+            evictions++;
+        }
+        stores++;
+        keys[s] = key;
+        masks[s] = set;
+        work[s] = w;
+        problemOf[s] = problem;
+        length[s] = (byte)len;
+        System.arraycopy(out, 0, counts, s * ROW, len);
+    }
+
+    private long worth(int s) {
+        return length[s] == 0 || problemOf[s] != problem ? -1 : work[s];
+    }
+
+    /**
+     * Get the number of slots in the table.
+     */
+    public int getTableSize() {
+        return keys.length;
+    }
+
+    /**
+     * Get the number of search nodes visited so far, over every problem.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the number of times the table was looked in so far.
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Get the number of times the table had the answer so far.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the fraction of looks in the table that found the answer.
+     */
+    public double getHitRate() {
+        return probes == 0 ? 0.0 : (double)hits / probes;
+    }
+
+    /**
+     * Get the number of entries stored, and how many of those pushed out an
+     * entry of the same problem.
+     */
+    public long getStores() {
+        return stores;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * A main() function, for testing. It makes tangled frontiers by
+     * revealing scattered cells of hard boards, and works out their
+     * probabilities with tables of a few sizes, printing the time, node
+     * counts and hit rates. The same frontiers are also done by plain
+     * enumeration, with a time limit, and where both finish the answers are
+     * checked to match.
+     */
+    public static void main(String args[]) {
+        long[] sizes = new long[Math.max(1, args.length)];
+        sizes[0] = DEFAULT_MEMORY;
+        for (int k = 0; k < args.length; k++)
+            sizes[k] = Long.parseLong(args[k]) << 20;
+        int rows = 60, cols = 90, frontiers = 20;
+        long limit = 2_000_000_000L;
+
+        Snapshot[] snaps = new Snapshot[frontiers];
+        for (int f = 0; f < frontiers; f++) {
+            Board board = new Board(rows, cols);
+            board.deployMines(Minesweeper.scaleMines(100, rows, cols), new Random(f));
+            Random random = new Random(f);
+            for (int i = 0; i < rows * cols; i++)
+                if (!board.isMine(i / cols, i % cols) && random.nextInt(1000) < 70)
+                    board.reveal(i / cols, i % cols);
+            snaps[f] = new Snapshot(board);
+        }
+
+        ProbabilityEngine plain = new ProbabilityEngine();
+        plain.setBacktrackSolver(null, Integer.MAX_VALUE);
+        double[][] answers = new double[frontiers][];
+        long plainNanos = 0;
+        int plainExact = 0;
+        for (int f = 0; f < frontiers; f++) {
+            long start = System.nanoTime();
+            if (plain.compute(snaps[f], limit)) {
+                plainExact++;
+                answers[f] = new double[rows * cols];
+                for (int i = 0; i < rows * cols; i++)
+                    answers[f][i] = plain.getProbability(i / cols, i % cols);
+            }
+            plainNanos += System.nanoTime() - start;
+        }
+        StdOut.printf("plain:           %2d of %d exact, %8.1f ms\n", plainExact, frontiers, plainNanos / 1e6);
+
+        for (long bytes : sizes) {
+            BacktrackSolver solver = new BacktrackSolver(bytes);
+            ProbabilityEngine engine = new ProbabilityEngine();
+            engine.setBacktrackSolver(solver, 20);
+            long nanos = 0;
+            int exact = 0, largest = 0;
+            for (int f = 0; f < frontiers; f++) {
+                long start = System.nanoTime();
+                if (engine.compute(snaps[f], limit))
+                    exact++;
+                nanos += System.nanoTime() - start;
+                largest = Math.max(largest, engine.getLargestComponent());
+                if (answers[f] != null && engine.isExact())
+                    for (int i = 0; i < rows * cols; i++) {
+                        double a = engine.getProbability(i / cols, i % cols);
+                        if (Math.abs(a - answers[f][i]) > 1e-9)
+                            throw new IllegalStateException("probabilities differ at cell " + i
+                                                            + ": " + a + " vs " + answers[f][i]);
+                    }
+            }
+            StdOut.printf("%4d MB table:   %2d of %d exact, %8.1f ms, %d slots, %d nodes, "
+                          + "hit rate %.1f%%, %d stores, %d evictions (largest component %d)\n",
+                          bytes >> 20, exact, frontiers, nanos / 1e6, solver.getTableSize(),
+                          solver.getNodes(), 100 * solver.getHitRate(), solver.getStores(),
+                          solver.getEvictions(), largest);
+        }
+    }
+}
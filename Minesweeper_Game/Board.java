@@ -0,0 +1,817 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Board holds the state of every square of the game grid in
+ *  packed arrays, so the game rules never have to touch a widget.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Board</i> object holds all of the state of a minesweeper grid. Each
+ * yes/no property of a cell (mine, revealed, flagged, used mine, bullet, trail)
+ * is one bit in a long[] bitset, and the neighbor mine counts are kept in a
+ * byte[]. Every row starts on a fresh 64-bit word, so a cell's bit lives at
+ * index row * stride + col, where stride is the row length rounded up to a
+ * multiple of 64. This lets whole-board operations like "reveal all mines"
+ * run a word (64 cells) at a time.
+ */
+public class Board implements Minefield {
+
+    // Size of the board, in cells.
+    private final int rows, cols;
+
+    // Number of longs used for each row, and the matching number of bits.
+    private final int rowWords, stride;
+
+    // One bit per cell for each yes/no property.
+    private final long[] mines, revealed, flagged, usedMines;
+
+    // Secret game bits. Where the monsters and bullets are is kept by the
+    // game's OccupancyGrid, since several can share a cell.
+    private final long[] trails;
+    private OccupancyGrid occupancy;
+
+    // Number of neighboring mines around each cell, 0 to 8.
+    private final byte[] neighborCounts;
+
+    // Spans still waiting to be scanned by uncoverNeighboringBlanks(), kept
+    // around so a big opening does not allocate a new stack every click.
+    private final IntStack spans = new IntStack();
+
+    // Cell where the player stands in the secret game, and the mine that
+    // killed the player, as bit indexes. -1 if there is none.
+    private int player = -1;
+    private int blownUp = -1;
+
+    // Running totals, kept up to date by every method that changes the board.
+    private final Counters counters;
+
+    // Fingerprints of the mines and of what the player can see, kept up to
+    // date by every method that changes them. Changes to the view made in
+    // the middle of an uncover are gathered in hashChanges and applied with
+    // the counters.
+    private final Zobrist zobrist;
+    private final long[] hashChanges = new long[Zobrist.SYMMETRIES];
+
+    // Flags taken off by the current uncoverNeighboringBlanks() call.
+    private int unflagged;
+
+    // Every opening on the board, found when the mines are deployed, or null
+    // if the mines have changed since.
+    private Openings openings;
+
+    // How hard the deployed layout is, worked out with the openings, or null
+    // if the mines have changed since.
+    private BoardMetrics metrics;
+
+    /**
+     * Constructor: Create an empty board with no mines, flags, or revealed
+     * cells.
+     * @param rows the number of rows on the board.
+     * @param cols the number of columns on the board.
+     */
+    public Board(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        rowWords = (cols + 63) >>> 6;
+        stride = rowWords << 6;
+        int words = rows * rowWords;
+        mines = new long[words];
+        revealed = new long[words];
+        flagged = new long[words];
+        usedMines = new long[words];
+        trails = new long[words];
+        neighborCounts = new byte[rows * stride];
+        counters = new Counters((long)rows * cols);
+        zobrist = new Zobrist(rows, cols);
+    }
+
+    /**
+     * Get the running totals for this board.
+     */
+    public Counters getCounters() {
+        return counters;
+    }
+
+    /**
+     * If Counters.DEBUG is on, count everything on the board from scratch and
+     * throw an IllegalStateException if it does not match the running totals.
+     */
+    public void checkCounters() {
+        if (!Counters.DEBUG)
+            return;
+        long revealedCount = 0, revealedMines = 0, flaggedCount = 0, mineCount = 0;
+        for (int w = 0; w < mines.length; w++) {
+            revealedCount += Long.bitCount(revealed[w]);
+            revealedMines += Long.bitCount(revealed[w] & mines[w]);
+            flaggedCount += Long.bitCount(flagged[w]);
+            mineCount += Long.bitCount(mines[w]);
+        }
+        if (revealedCount != counters.revealed || revealedMines != counters.revealedMines
+            || flaggedCount != counters.flagged || mineCount != counters.mines)
+            throw new IllegalStateException(String.format(
+                "counters drifted: revealed %d (counted %d), revealed mines %d (counted %d), flagged %d (counted %d), mines %d (counted %d)",
+                counters.revealed, revealedCount, counters.revealedMines, revealedMines,
+                counters.flagged, flaggedCount, counters.mines, mineCount));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns the bit index of a cell. All of the per-cell arrays are indexed
+     * this way.
+     */
+    public int index(int row, int col) {
+        return row * stride + col;
+    }
+
+    /**
+     * Returns true if the given row and column lie on the board.
+     */
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    private static boolean get(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    private static void clear(long[] bits, int i) {
+        bits[i >>> 6] &= ~(1L << i);
+    }
+
+    /**
+     * Hide a mine in a cell. The neighbor counts around it are updated too,
+     * along with the view hash of any revealed number that changes.
+     * Returns false if there was already a mine there.
+     */
+    public boolean makeMine(int row, int col) {
+        int i = index(row, col);
+        if (get(mines, i))
+            return false;
+        if (get(revealed, i)) {
+            zobrist.toggleView(row, col, neighborCounts[i]);
+            zobrist.toggleView(row, col, Zobrist.SHOWN_MINE);
+        }
+        set(mines, i);
+        zobrist.toggleMine(row, col);
+        counters.mines++;
+        openings = null;
+        metrics = null;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++)
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++)
+                if (r != row || c != col) {
+                    int j = index(r, c);
+                    if (get(revealed, j) && !get(mines, j)) {
+                        zobrist.toggleView(r, c, neighborCounts[j]);
+                        zobrist.toggleView(r, c, neighborCounts[j] + 1);
+                    }
+                    neighborCounts[j]++;
+                }
+        return true;
+    }
+
+    /**
+     * Hide the given number of mines in distinct cells picked uniformly at
+     * random from the whole board, and return how many were placed. This is
+     * Floyd's sampling algorithm: for each of the last k cell numbers j it
+     * picks a random cell from 0 to j, and takes j itself if that one already
+     * has a mine. Every cell is equally likely, exactly k distinct cells are
+     * picked, and it takes O(k) time with no memory beyond the mine bitset,
+     * however dense the board is. The same generator state always gives the
+     * same mines. Once the mines are down, the neighbor counts, the openings
+     * and the BoardMetrics are worked out.
+     */
+    public int deployMines(int k, java.util.Random random) {
+        return deployMines(k, random, new int[0]);
+    }
+
+    /**
+     * Deploy mines the same way, but keep them out of the 3 x 3 block of
+     * cells around the given one, so that a first click there opens an
+     * opening.
+     */
+    public int deployMines(int k, java.util.Random random, int safeRow, int safeCol) {
+        IntStack kept = new IntStack(9);
+        for (int r = Math.max(0, safeRow - 1); r <= Math.min(rows - 1, safeRow + 1); r++)
+            for (int c = Math.max(0, safeCol - 1); c <= Math.min(cols - 1, safeCol + 1); c++)
+                kept.push(r * cols + c);
+        int[] skip = new int[kept.size()];
+        for (int s = 0; s < skip.length; s++)
+            skip[s] = kept.get(s);
+        return deployMines(k, random, skip);
+    }
+
+    // Floyd's sampling over the cell numbers that are not in skip, which must
+    // be in increasing order. A number t picked from the n - skip.length
+    // allowed cells is turned into a cell number by stepping over each
+    // skipped cell at or below it.
+    private int deployMines(int k, java.util.Random random, int[] skip) {
+        int n = rows * cols - skip.length;
+        k = Math.max(0, Math.min(k, n));
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            int i = cellIndex(t, skip);
+            if (get(mines, i))
+                i = cellIndex(j, skip);
+            set(mines, i);
+            zobrist.toggleMine(i / stride, i % stride);
+        }
+        counters.mines += k;
+        computeNeighborCounts();
+        if (counters.revealed > 0 || counters.flagged > 0)
+            rehashView();
+        openings = new Openings(this);
+        metrics = new BoardMetrics(this);
+        return k;
+    }
+
+    // Make the view hash again from scratch, for when the numbers under
+    // revealed cells have all changed at once.
+    private void rehashView() {
+        zobrist.clearView();
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) {
+                int i = index(r, c);
+                if (get(revealed, i))
+                    zobrist.toggleView(r, c, viewKind(i));
+                else if (get(flagged, i))
+                    zobrist.toggleView(r, c, Zobrist.FLAG);
+            }
+    }
+
+    // What a revealed cell shows, as a Zobrist key kind.
+    private int viewKind(int i) {
+        return get(mines, i) ? Zobrist.SHOWN_MINE : neighborCounts[i];
+    }
+
+    // Add the view hash changes for revealing the hidden cell at bit index i
+    // to the given array.
+    private void hashReveal(long[] changes, int i) {
+        int row = i / stride, col = i % stride;
+        if (get(flagged, i))
+            zobrist.toggle(changes, row, col, Zobrist.FLAG);
+        zobrist.toggle(changes, row, col, viewKind(i));
+    }
+
+    // The bit index of the t'th cell that is not skipped.
+    private int cellIndex(int t, int[] skip) {
+        for (int s : skip)
+            if (t >= s)
+                t++;
+        return index(t / cols, t % cols);
+    }
+
+    /**
+     * Work out every cell's neighbor mine count from the mine bitset in one
+     * pass. Rather than adding one to the 8 cells around each mine, this adds
+     * up whole words of 64 cells at a time, with the counts kept "bit sliced":
+     * bit b of s0, s1, s2, s3 are the four bits of the count for cell b of
+     * the word. For each word it takes the 3-wide sums of the rows above and
+     * below, plus the left and right neighbors in its own row, adds them with
+     * bitwise full adders, then spreads the 64 counts out into the byte array.
+     */
+    public void computeNeighborCounts() {
+        for (int r = 0; r < rows; r++) {
+            int up = (r - 1) * rowWords, here = r * rowWords, down = (r + 1) * rowWords;
+            for (int w = 0; w < rowWords; w++) {
+                // 2-bit sums of (left, middle, right) for the rows above and below.
+                long a0 = 0, a1 = 0, b0 = 0, b1 = 0;
+                if (r > 0) {
+                    long x = mines[up + w];
+                    long left = leftNeighbors(x, w == 0 ? 0 : mines[up + w - 1]);
+                    long right = rightNeighbors(x, w == rowWords - 1 ? 0 : mines[up + w + 1]);
+                    a0 = left ^ x ^ right;
+                    a1 = (left & x) | (left & right) | (x & right);
+                }
+                if (r < rows - 1) {
+                    long x = mines[down + w];
+                    long left = leftNeighbors(x, w == 0 ? 0 : mines[down + w - 1]);
+                    long right = rightNeighbors(x, w == rowWords - 1 ? 0 : mines[down + w + 1]);
+                    b0 = left ^ x ^ right;
+                    b1 = (left & x) | (left & right) | (x & right);
+                }
+                // 2-bit sum of just the left and right cells in this row.
+                long x = mines[here + w];
+                long left = leftNeighbors(x, w == 0 ? 0 : mines[here + w - 1]);
+                long right = rightNeighbors(x, w == rowWords - 1 ? 0 : mines[here + w + 1]);
+                long c0 = left ^ right, c1 = left & right;
+
+                // a + b, 3 bits.
+                long t0 = a0 ^ b0, k0 = a0 & b0;
+                long t1 = a1 ^ b1 ^ k0, t2 = (a1 & b1) | (k0 & (a1 ^ b1));
+                // (a + b) + c, 4 bits.
+                long s0 = t0 ^ c0, m0 = t0 & c0;
+                long s1 = t1 ^ c1 ^ m0, m1 = (t1 & c1) | (m0 & (t1 ^ c1));
+                long s2 = t2 ^ m1, s3 = t2 & m1;
+
+                // Spread the counts out 8 cells at a time: SPREAD turns each
+                // bit of a byte into a byte of 0 or 1, so one long holds the
+                // 8 counts and is stored with a single write.
+                int base = r * stride + (w << 6);
+                for (int b = 0; b < 64; b += 8)
+                    LONGS.set(neighborCounts, base + b,
+                              SPREAD[(int)(s0 >>> b) & 0xFF] | SPREAD[(int)(s1 >>> b) & 0xFF] << 1
+                              | SPREAD[(int)(s2 >>> b) & 0xFF] << 2 | SPREAD[(int)(s3 >>> b) & 0xFF] << 3);
+            }
+            // Keep the padding past the last column at zero.
+            java.util.Arrays.fill(neighborCounts, r * stride + cols, (r + 1) * stride, (byte)0);
+        }
+    }
+
+    // Writes 8 bytes of a byte[] at once, lowest index in the lowest byte.
+    private static final java.lang.invoke.VarHandle LONGS =
+        java.lang.invoke.MethodHandles.byteArrayViewVarHandle(long[].class, java.nio.ByteOrder.LITTLE_ENDIAN);
+
+    // SPREAD[x] has byte b set to bit b of x.
+    private static final long[] SPREAD = new long[256];
+    static {
+        for (int x = 0; x < 256; x++)
+            for (int b = 0; b < 8; b++)
+                if ((x & (1 << b)) != 0)
+                    SPREAD[x] |= 1L << (8 * b);
+    }
+
+    // Bit b of the result is the cell to the left of bit b of x. The word
+    // before x supplies the cell left of bit 0.
+    private static long leftNeighbors(long x, long before) {
+        return (x << 1) | (before >>> 63);
+    }
+
+    // Bit b of the result is the cell to the right of bit b of x. The word
+    // after x supplies the cell right of bit 63.
+    private static long rightNeighbors(long x, long after) {
+        return (x >>> 1) | (after << 63);
+    }
+
+    public boolean isMine(int row, int col) {
+        return get(mines, index(row, col));
+    }
+
+    public int getNeighborMineCount(int row, int col) {
+        return neighborCounts[index(row, col)];
+    }
+
+    /**
+     * Check whether there are no mines around a cell.
+     */
+    public boolean coastIsClear(int row, int col) {
+        return neighborCounts[index(row, col)] == 0;
+    }
+
+    /**
+     * Reveal a cell. Returns true if it was hidden before.
+     */
+    public boolean reveal(int row, int col) {
+        int i = index(row, col);
+        if (get(revealed, i))
+            return false;
+        if (get(flagged, i))
+            zobrist.toggleView(row, col, Zobrist.FLAG);
+        zobrist.toggleView(row, col, viewKind(i));
+        set(revealed, i);
+        counters.revealed++;
+        if (get(mines, i))
+            counters.revealedMines++;
+        return true;
+    }
+
+    /**
+     * Get the number of blank cells in the opening holding the given cell,
+     * or 0 if it is not blank or the openings are not known. Clicking the
+     * cell uncovers about that many cells.
+     */
+    public long openingSize(int row, int col) {
+        int opening = openings == null ? -1 : openings.openingAt(index(row, col));
+        return opening < 0 ? 0 : openings.getSize(opening);
+    }
+
+    public boolean isRevealed(int row, int col) {
+        return get(revealed, index(row, col));
+    }
+
+    /**
+     * Uncover the whole opening around a blank cell (one with no neighboring
+     * mines) that has just been revealed. Every blank cell connected to it,
+     * including through diagonals, is revealed, along with the numbered cells
+     * bordering them. Flags inside the opening are removed, since none of
+     * those cells can hold a mine. Returns how many cells were newly revealed,
+     * not counting (row, col) itself.
+     *
+     * If the openings were found when the mines were deployed, the opening is
+     * just looked up and revealed a word at a time; see Openings. Otherwise
+     * this is a scanline flood fill. Each stack entry is a run of revealed
+     * blanks in one row. Popping it stretches the run left and right as far
+     * as the blanks go, then sweeps the rows above and below the run (one cell
+     * wider on each side), revealing everything there and pushing each new
+     * run of blanks it finds. No recursion is used, so the size of the opening
+     * is only limited by memory.
+     */
+    public int uncoverNeighboringBlanks(int row, int col) {
+        unflagged = 0;
+        int revealCount = cascade(row, col);
+        countUncovered(revealCount, unflagged);
+        return revealCount;
+    }
+
+    /**
+     * Reveal a batch of cells in one go: every hidden cell without a flag is
+     * revealed straight in the bitset, the opening around each blank one is
+     * uncovered, and the counters are updated once at the end.
+     */
+    public void reveal(RevealBatch batch) {
+        int revealCount = 0, mineCount = 0;
+        unflagged = 0;
+        for (int k = 0; k < batch.size(); k++) {
+            int row = batch.getRow(k), col = batch.getCol(k);
+            int i = index(row, col);
+            if (get(revealed, i) || get(flagged, i))
+                continue;
+            hashReveal(hashChanges, i);
+            set(revealed, i);
+            revealCount++;
+            if (get(mines, i)) {
+                mineCount++;
+                batch.mineHit(row, col);
+            } else if (neighborCounts[i] == 0) {
+                revealCount += cascade(row, col);
+            }
+        }
+        countUncovered(revealCount, unflagged);
+        counters.revealedMines += mineCount;
+        batch.setRevealed(revealCount);
+    }
+
+    // Uncover the opening around a blank cell, and return how many cells
+    // were revealed. Flags taken off on the way are added to unflagged, and
+    // the counters are left for the caller.
+    private int cascade(int row, int col) {
+        int revealCount = 0;
+        int opening = openings == null ? -1 : openings.openingAt(index(row, col));
+        if (opening >= 0) {
+            Uncovered u = openings.reveal(this, opening);
+            unflagged += u.unflagged;
+            for (int s = 0; s < Zobrist.SYMMETRIES; s++)
+                hashChanges[s] ^= u.changes[s];
+            return u.revealed;
+        }
+        spans.clear();
+        if (coastIsClear(row, col)) {
+            spans.push(row);
+            spans.push(col);
+            spans.push(col);
+        }
+        while (!spans.isEmpty()) {
+            int right = spans.pop();
+            int left = spans.pop();
+            int r = spans.pop();
+            int base = r * stride;
+
+            // Stretch the run over hidden blanks to either side.
+            while (left > 0 && isHiddenBlank(base + left - 1)) {
+                uncover(base + --left);
+                revealCount++;
+            }
+            while (right < cols - 1 && isHiddenBlank(base + right + 1)) {
+                uncover(base + ++right);
+                revealCount++;
+            }
+
+            // The cells just past the ends of the run border it.
+            int lo = Math.max(0, left - 1);
+            int hi = Math.min(cols - 1, right + 1);
+            if (lo < left && !get(revealed, base + lo)) {
+                uncover(base + lo);
+                revealCount++;
+            }
+            if (hi > right && !get(revealed, base + hi)) {
+                uncover(base + hi);
+                revealCount++;
+            }
+
+            if (r > 0)
+                revealCount += scanRow(r - 1, lo, hi);
+            if (r < rows - 1)
+                revealCount += scanRow(r + 1, lo, hi);
+        }
+        return revealCount;
+    }
+
+    // Reveal every hidden cell of row r from column lo to hi, pushing each run
+    // of newly revealed blanks so it gets spread from later. Returns how many
+    // cells were revealed.
+    private int scanRow(int r, int lo, int hi) {
+        int revealCount = 0;
+        int base = r * stride;
+        for (int c = lo; c <= hi; c++) {
+            int i = base + c;
+            if (get(revealed, i))
+                continue;
+            uncover(i);
+            revealCount++;
+            if (neighborCounts[i] != 0)
+                continue;
+            int start = c;
+            while (c < hi && isHiddenBlank(i + 1)) {
+                uncover(++i);
+                revealCount++;
+                c++;
+            }
+            spans.push(r);
+            spans.push(start);
+            spans.push(c);
+        }
+        return revealCount;
+    }
+
+    private boolean isHiddenBlank(int i) {
+        return neighborCounts[i] == 0 && !get(revealed, i);
+    }
+
+    // Reveal the hidden cell at bit index i, taking away any flag on it.
+    // The counters are not touched, but flags taken off are kept track of,
+    // and the view hash changes are gathered; see countUncovered().
+    private void uncover(int i) {
+        hashReveal(hashChanges, i);
+        if (get(flagged, i))
+            unflagged++;
+        set(revealed, i);
+        clear(flagged, i);
+    }
+
+    // What uncovering some cells did: how many were revealed, how many flags
+    // came off, and the view hash changes. A reveal split over several
+    // threads keeps one of these for each, and adds them up at the end.
+    static class Uncovered {
+        int revealed, unflagged;
+        final long[] changes = new long[Zobrist.SYMMETRIES];
+
+        void add(Uncovered u) {
+            revealed += u.revealed;
+            unflagged += u.unflagged;
+            for (int s = 0; s < Zobrist.SYMMETRIES; s++)
+                changes[s] ^= u.changes[s];
+        }
+    }
+
+    // Reveal the cells of one row from bit index from to bit index to, whole
+    // words at a time, taking away their flags, and add what changed to
+    // into. Only that row's words are written, so threads can each show
+    // ranges of their own rows at once.
+    void showRange(int from, int to, Uncovered into) {
+        int row = from / stride;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            long mask = -1L;
+            if (w == from >>> 6)
+                mask &= -1L << from;
+            if (w == to >>> 6)
+                mask &= -1L >>> (63 - (to & 63));
+            into.revealed += Long.bitCount(mask & ~revealed[w]);
+            into.unflagged += Long.bitCount(mask & flagged[w]);
+            // None of an opening's cells are mines, so each shows its number.
+            int col0 = (w << 6) - row * stride;
+            for (long fresh = mask & ~revealed[w]; fresh != 0; fresh &= fresh - 1) {
+                int b = Long.numberOfTrailingZeros(fresh);
+                zobrist.toggle(into.changes, row, col0 + b, neighborCounts[(w << 6) + b]);
+            }
+            for (long fresh = mask & ~revealed[w] & flagged[w]; fresh != 0; fresh &= fresh - 1)
+                zobrist.toggle(into.changes, row, col0 + Long.numberOfTrailingZeros(fresh), Zobrist.FLAG);
+            revealed[w] |= mask;
+            flagged[w] &= ~mask;
+        }
+    }
+
+    // Add the cells revealed and flags taken off by an opening, none of which
+    // are mines, to the counters, and apply the view hash changes gathered
+    // meanwhile.
+    private void countUncovered(long revealCount, long unflagCount) {
+        counters.revealed += revealCount;
+        counters.flagged -= unflagCount;
+        zobrist.apply(hashChanges);
+        java.util.Arrays.fill(hashChanges, 0L);
+    }
+
+    // Index-based access for the reveal engines, which walk the board by bit
+    // index rather than by row and column.
+
+    int getStride() {
+        return stride;
+    }
+
+    // The mines of the word of 64 cells starting at bit index i.
+    long mineBits(int i) {
+        return mines[i >>> 6];
+    }
+
+    // The revealed cells of the word of 64 cells starting at bit index i.
+    long revealedBits(int i) {
+        return revealed[i >>> 6];
+    }
+
+    // The flagged cells of the word of 64 cells starting at bit index i.
+    long flaggedBits(int i) {
+        return flagged[i >>> 6];
+    }
+
+    // The neighbor mine count at bit index i.
+    int neighborCountAt(int i) {
+        return neighborCounts[i];
+    }
+
+    // The blank cells (no mine, no neighboring mines) of the word of 64 cells
+    // starting at bit index i, as a bitmask. The neighbor counts are read 8
+    // at a time, and each zero byte is found with the usual carry trick and
+    // gathered down to one bit by a multiply.
+    long blankBits(int i) {
+        final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+        long bits = 0;
+        for (int b = 0; b < 64; b += 8) {
+            long v = (long)LONGS.get(neighborCounts, i + b);
+            long zero = ~(((v & LOW7) + LOW7) | v | LOW7) >>> 7;
+            bits |= ((zero * 0x0102040810204080L) >>> 56) << b;
+        }
+        int col = i % stride;
+        if (col + 64 > cols)
+            bits &= -1L >>> (col + 64 - cols);
+        return bits & ~mines[i >>> 6];
+    }
+
+    /**
+     * Get the openings found when the mines were deployed, or null if there
+     * are none because the mines were placed one at a time.
+     */
+    public Openings getOpenings() {
+        return openings;
+    }
+
+    /**
+     * Get the Zobrist hashes of the board's mines and of what the player can
+     * see, which are kept up to date as cells change.
+     */
+    public Zobrist getZobrist() {
+        return zobrist;
+    }
+
+    /**
+     * Get the metrics of the layout found when the mines were deployed, or
+     * null if the mines were placed one at a time.
+     */
+    public BoardMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void makeFlag(int row, int col) {
+        int i = index(row, col);
+        if (!get(flagged, i)) {
+            set(flagged, i);
+            counters.flagged++;
+            if (!get(revealed, i))
+                zobrist.toggleView(row, col, Zobrist.FLAG);
+        }
+    }
+
+    public void removeFlag(int row, int col) {
+        int i = index(row, col);
+        if (get(flagged, i)) {
+            clear(flagged, i);
+            counters.flagged--;
+            if (!get(revealed, i))
+                zobrist.toggleView(row, col, Zobrist.FLAG);
+        }
+    }
+
+    public boolean isFlag(int row, int col) {
+        return get(flagged, index(row, col));
+    }
+
+    /**
+     * Reveal every mine on the board, one word at a time.
+     */
+    public void revealAllMines() {
+        for (int w = 0; w < mines.length; w++) {
+            int n = Long.bitCount(mines[w] & ~revealed[w]);
+            counters.revealed += n;
+            counters.revealedMines += n;
+            for (long fresh = mines[w] & ~revealed[w]; fresh != 0; fresh &= fresh - 1)
+                hashReveal(hashChanges, (w << 6) + Long.numberOfTrailingZeros(fresh));
+            revealed[w] |= mines[w];
+        }
+        zobrist.apply(hashChanges);
+        java.util.Arrays.fill(hashChanges, 0L);
+    }
+
+    /**
+     * Flag every mine on the board, one word at a time.
+     */
+    public void placeFlags() {
+        for (int w = 0; w < mines.length; w++) {
+            counters.flagged += Long.bitCount(mines[w] & ~flagged[w]);
+            for (long fresh = mines[w] & ~flagged[w] & ~revealed[w]; fresh != 0; fresh &= fresh - 1) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(fresh);
+                zobrist.toggleView(i / stride, i % stride, Zobrist.FLAG);
+            }
+            flagged[w] |= mines[w];
+        }
+    }
+
+    /**
+     * Count the number of mines on the board.
+     */
+    public int countMines() {
+        int n = 0;
+        for (int w = 0; w < mines.length; w++)
+            n += Long.bitCount(mines[w]);
+        return n;
+    }
+
+    // Secret game stuff.
+
+    public void blownUp(int row, int col) {
+        blownUp = index(row, col);
+    }
+
+    public boolean isBlownUp(int row, int col) {
+        return blownUp == index(row, col);
+    }
+
+    public void mineUsed(int row, int col) {
+        set(usedMines, index(row, col));
+    }
+
+    public boolean mineWasUsed(int row, int col) {
+        return get(usedMines, index(row, col));
+    }
+
+    public void placePlayer(int row, int col) {
+        player = index(row, col);
+    }
+
+    public void removePlayer() {
+        player = -1;
+    }
+
+    public boolean isPlayer(int row, int col) {
+        return player == index(row, col);
+    }
+
+    /**
+     * Use the given grid for where the secret game's monsters and bullets
+     * are.
+     */
+    public void setOccupancy(OccupancyGrid occupancy) {
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Count a newly spawned monster.
+     */
+    public void monsterSpawned() {
+        counters.monstersAlive++;
+    }
+
+    /**
+     * Count a monster that was just killed as dead.
+     */
+    public void monsterKilled() {
+        counters.monstersAlive--;
+        counters.monstersKilled++;
+    }
+
+    public int monsterCount(int row, int col) {
+        return occupancy == null ? 0 : occupancy.count(row, col, OccupancyGrid.MONSTER);
+    }
+
+    public boolean isBullet(int row, int col) {
+        return occupancy != null && occupancy.find(row, col, OccupancyGrid.BULLET) != -1;
+    }
+
+    /**
+     * Rub out every bullet trail, ready for the bullets to draw new ones.
+     */
+    public void clearShotTrails() {
+        java.util.Arrays.fill(trails, 0L);
+    }
+
+    public void shotIsTrailing(int row, int col) {
+        set(trails, index(row, col));
+    }
+
+    public void shotNotTrailing(int row, int col) {
+        clear(trails, index(row, col));
+    }
+
+    public boolean isShotTrailing(int row, int col) {
+        return get(trails, index(row, col));
+    }
+}
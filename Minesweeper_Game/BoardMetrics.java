@@ -0,0 +1,187 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  BoardMetrics measures how much work a minesweeper layout is to
+ *  clear, so times on different boards can be compared.
+ *----------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * A <i>BoardMetrics</i> object describes how hard a layout of mines is to
+ * clear. Its 3BV (the "Bechtel's Board Benchmark Value") is the least number
+ * of clicks that clears the board without flags: one click for each opening,
+ * plus one for each isolated number, a numbered cell that touches no blank
+ * cell and so is not uncovered by any opening. A player's 3BV/s, the 3BV
+ * divided by the seconds taken, is a speed that can be compared between
+ * boards, where raw times cannot.
+ *
+ * The openings are counted by the board's Openings index. The isolated
+ * numbers are found in one sweep over the board a word of 64 cells at a
+ * time: the blank cells of three rows are ORed together and widened by one
+ * column each way, giving every cell that is blank or next to a blank one,
+ * and the numbered cells outside that are counted with bitCount.
+ */
+public class BoardMetrics {
+
+    private final int openings, isolated;
+
+    /**
+     * Measure the layout of a board whose mines and neighbor counts are
+     * already in place.
+     */
+    public BoardMetrics(Board board) {
+        int rows = board.getRows(), cols = board.getCols(), stride = board.getStride();
+        int words = stride >>> 6;
+
+        // The blank cells of the rows above, at, and below the current one,
+        // and their OR.
+        long[] above = new long[words], here = new long[words], below = new long[words];
+        long[] column = new long[words];
+        for (int w = 0; w < words; w++)
+            here[w] = board.blankBits(w << 6);
+
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            int base = r * stride;
+            for (int w = 0; w < words; w++) {
+                below[w] = r + 1 < rows ? board.blankBits(base + stride + (w << 6)) : 0;
+                column[w] = above[w] | here[w] | below[w];
+            }
+            for (int w = 0; w < words; w++) {
+                long v = column[w];
+                long before = w == 0 ? 0 : column[w - 1], after = w == words - 1 ? 0 : column[w + 1];
+                long near = v | (v << 1) | (before >>> 63) | (v >>> 1) | (after << 63);
+                long numbered = ~board.mineBits(base + (w << 6)) & ~here[w];
+                int col0 = w << 6;
+                if (col0 + 64 > cols)
+                    numbered &= -1L >>> (col0 + 64 - cols);
+                count += Long.bitCount(numbered & ~near);
+            }
+            long[] t = above;
+            above = here;
+            here = below;
+            below = t;
+        }
+        isolated = count;
+
+        Openings index = board.getOpenings();
+        openings = (index != null ? index : new Openings(board)).getNumOpenings();
+    }
+
+    /**
+     * Make the metrics of a layout from counts measured earlier, such as
+     * ones saved with a leaderboard entry.
+     */
+    public BoardMetrics(int openings, int isolated) {
+        this.openings = openings;
+        this.isolated = isolated;
+    }
+
+    /**
+     * Get the 3BV: the least number of clicks that clears the board.
+     */
+    public int get3BV() {
+        return openings + isolated;
+    }
+
+    /**
+     * Get the number of openings.
+     */
+    public int getOpenings() {
+        return openings;
+    }
+
+    /**
+     * Get the number of isolated numbers, the numbered cells that no opening
+     * uncovers.
+     */
+    public int getIsolatedNumbers() {
+        return isolated;
+    }
+
+    /**
+     * Get the 3BV per second of clearing the board in the given time. A time
+     * under a second counts as one second, as the timer only shows whole
+     * seconds.
+     */
+    public double get3BVPerSecond(double seconds) {
+        return get3BV() / Math.max(1.0, seconds);
+    }
+
+    public String toString() {
+        return String.format("3BV %d (%d openings, %d isolated numbers)", get3BV(), openings, isolated);
+    }
+
+    // The 3BV worked out the usual slow way, for checking: flood fill each
+    // opening cell by cell and count a click for it, then count a click for
+    // each non-mine cell the floods did not reach.
+    private static int slow3BV(Board board) {
+        int rows = board.getRows(), cols = board.getCols();
+        boolean[] reached = new boolean[rows * cols];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int clicks = 0;
+        for (int start = 0; start < rows * cols; start++) {
+            int sr = start / cols, sc = start % cols;
+            if (reached[start] || board.isMine(sr, sc) || board.getNeighborMineCount(sr, sc) != 0)
+                continue;
+            clicks++;
+            reached[start] = true;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                int cell = queue.poll(), row = cell / cols, col = cell % cols;
+                if (board.getNeighborMineCount(row, col) != 0)
+                    continue;
+                for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++)
+                    for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++)
+                        if (!reached[r * cols + c]) {
+                            reached[r * cols + c] = true;
+                            queue.add(r * cols + c);
+                        }
+            }
+        }
+        for (int cell = 0; cell < rows * cols; cell++)
+            if (!reached[cell] && !board.isMine(cell / cols, cell % cols))
+                clicks++;
+        return clicks;
+    }
+
+    /**
+     * A main() function, for testing. It checks the 3BV against a cell by
+     * cell flood fill on many random boards, then times the sweep on a big
+     * board.
+     */
+    public static void main(String args[]) {
+        Random random = new Random(1);
+        for (int t = 0; t < 3000; t++) {
+            int rows = 1 + random.nextInt(40), cols = 1 + random.nextInt(150);
+            Board board = new Board(rows, cols);
+            board.deployMines(random.nextInt(rows * cols / 3 + 1), new Random(t));
+            BoardMetrics m = board.getMetrics();
+            int expected = slow3BV(board);
+            if (m.get3BV() != expected)
+                throw new IllegalStateException("board " + t + " (" + rows + " x " + cols + "): "
+                                                + m + ", expected 3BV " + expected);
+        }
+        StdOut.println("3BV matches the flood fill on 3000 boards");
+
+        for (int level : new int[] { 5, 20, 100 }) {
+            Board board = new Board(Game.VIEW_ROWS, Game.VIEW_COLS);
+            board.deployMines(level, new Random(level));
+            StdOut.printf("%3d mines on %d x %d: %s\n", level, Game.VIEW_ROWS, Game.VIEW_COLS, board.getMetrics());
+        }
+
+        Board big = new Board(2000, 2000);
+        big.deployMines(2000 * 2000 / 6, new Random(2));
+        long best = Long.MAX_VALUE;
+        for (int k = 0; k < 20; k++) {
+            long start = System.nanoTime();
+            new BoardMetrics(big);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        StdOut.printf("2000 x 2000: %s, sweep %.2f ms\n", big.getMetrics(), best / 1e6);
+    }
+}
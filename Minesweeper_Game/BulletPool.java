@@ -0,0 +1,379 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  BulletPool holds every bullet of the secret game in plain
+ *  arrays that are made once and reused, shot after shot.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>BulletPool</i> holds the bullets of the secret game. Like a
+ * MonsterPool it keeps each thing about a bullet in an array of its own: its
+ * cell, where it was before its last move, its velocity (how many rows and
+ * columns it moves each turn), and its lifetime (how many more turns it
+ * flies). The arrays are made once, at their full size, so firing a bullet
+ * never allocates anything; when the pool is full, a shot just fails.
+ *
+ * A bullet keeps its slot for as long as it flies, so its number in the
+ * OccupancyGrid never changes. Free slots are kept on a stack and handed
+ * out again as bullets are fired, and the slots of the flying bullets are
+ * kept packed in a list, so a turn only looks at those.
+ *
+ * A bullet can move any number of rows and columns a turn. Its move is
+ * swept along a GridRay, so it passes over every cell between where it was
+ * and where it is going, however fast it is and whichever way it goes. The
+ * cells it passes over are its trail, and the first thing on its path that
+ * it hits, the player, stops it: a bullet that passes through the player's
+ * cell, not just one that ends up on it, hits them. Monsters fire the
+ * patterns below: a single aimed shot that turns to follow the player, a
+ * spread of three, a ring of eight, and a burst of shots in a line.
+ */
+public class BulletPool {
+
+    /**
+     * The most bullets that can fly at once in a secret game, 2048 unless it
+     * is set with -Dminesweeper.bullets=N.
+     */
+    public static final int CAP = Integer.getInteger("minesweeper.bullets", 2048);
+
+    // The eight compass directions, clockwise from up.
+    private static final int[] DIR_ROW = { -1, -1, 0, 1, 1, 1, 0, -1 };
+    private static final int[] DIR_COL = { 0, 1, 1, 1, 0, -1, -1, -1 };
+
+    // Flag of a bullet that turns to follow the player when passing them.
+    private static final byte HOMING = 1;
+
+    private final int cap;
+    private final OccupancyGrid grid;
+    private final int firstEntity;
+
+    // Walks each bullet's move, made for the board it is first updated on.
+    private GridRay ray;
+
+    // Each bullet's cell, its cell before its last move, its velocity, the
+    // turns it has left, and its flags.
+    private final int[] row, col, pastRow, pastCol, velRow, velCol, life;
+    private final byte[] flags;
+
+    // The slots of the bullets in flight, and the free slots.
+    private final int[] live, free;
+    private int liveCount, freeCount;
+
+    /**
+     * Make an empty pool with room for cap bullets at once.
+     */
+    public BulletPool(int cap) {
+        this(cap, null, 0);
+    }
+
+    /**
+     * Make an empty pool with room for cap bullets at once, and keep the
+     * given grid up to date: the bullet in slot b is entity firstEntity + b.
+     * The grid may be null.
+     */
+    public BulletPool(int cap, OccupancyGrid grid, int firstEntity) {
+        this.cap = cap;
+        this.grid = grid;
+        this.firstEntity = firstEntity;
+        row = new int[cap];
+        col = new int[cap];
+        pastRow = new int[cap];
+        pastCol = new int[cap];
+        velRow = new int[cap];
+        velCol = new int[cap];
+        life = new int[cap];
+        flags = new byte[cap];
+        live = new int[cap];
+        free = new int[cap];
+        for (int b = 0; b < cap; b++)
+            free[b] = cap - 1 - b; // so slot 0 is handed out first
+        freeCount = cap;
+    }
+
+    public int getCap() {
+        return cap;
+    }
+
+    /**
+     * Get the number of bullets in flight.
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Get the slot of the k'th bullet in flight, for k from 0 to size() - 1.
+     */
+    public int get(int k) {
+        return live[k];
+    }
+
+    public int getRow(int b) {
+        return row[b];
+    }
+
+    public int getCol(int b) {
+        return col[b];
+    }
+
+    /**
+     * Get the row the bullet in slot b was in before its last move. For a
+     * bullet that was just fired, it is the row it was fired from.
+     */
+    public int getPastRow(int b) {
+        return pastRow[b];
+    }
+
+    public int getPastCol(int b) {
+        return pastCol[b];
+    }
+
+    public int getVelocityRow(int b) {
+        return velRow[b];
+    }
+
+    public int getVelocityCol(int b) {
+        return velCol[b];
+    }
+
+    /**
+     * Get the number of turns the bullet in slot b has left to fly.
+     */
+    public int getLife(int b) {
+        return life[b];
+    }
+
+    /**
+     * Fire a bullet from (r, c), to move (vr, vc) on each of the given
+     * number of turns. Returns its slot, or -1 if the pool is full.
+     */
+    public int fire(int r, int c, int vr, int vc, int turns) {
+        if (freeCount == 0)
+            return -1;
+        int b = free[--freeCount];
+        live[liveCount++] = b;
+        row[b] = pastRow[b] = r;
+        col[b] = pastCol[b] = c;
+        velRow[b] = vr;
+        velCol[b] = vc;
+        life[b] = turns;
+        flags[b] = 0;
+        if (grid != null)
+            grid.put(firstEntity + b, OccupancyGrid.BULLET, r, c);
+        return b;
+    }
+
+    /**
+     * Fire a bullet from (r, c) at the player at (row_p, col_p), moving speed
+     * cells a turn up, down, left or right, whichever gets it closer
+     * fastest. It turns to follow the player if it passes them.
+     */
+    public void fireAimed(int r, int c, int row_p, int col_p, int speed, int turns) {
+        int dr = row_p - r, dc = col_p - c;
+        int b;
+        if (Math.abs(dr) > Math.abs(dc))
+            b = fire(r, c, Integer.signum(dr) * speed, 0, turns);
+        else
+            b = fire(r, c, 0, (dc < 0 ? -1 : 1) * speed, turns);
+        if (b >= 0)
+            flags[b] = HOMING;
+    }
+
+    /**
+     * Fire three bullets from (r, c): one in the compass direction closest
+     * to the player at (row_p, col_p), and one to either side of it.
+     */
+    public void fireSpread(int r, int c, int row_p, int col_p, int speed, int turns) {
+        int d = direction(row_p - r, col_p - c);
+        for (int k = -1; k <= 1; k++)
+            fireCompass(r, c, (d + k) & 7, speed, turns);
+    }
+
+    /**
+     * Fire eight bullets from (r, c), one in each compass direction.
+     */
+    public void fireRing(int r, int c, int speed, int turns) {
+        for (int d = 0; d < 8; d++)
+            fireCompass(r, c, d, speed, turns);
+    }
+
+    /**
+     * Fire count bullets from (r, c) in the compass direction closest to the
+     * player at (row_p, col_p), at speeds 1 to count, so they string out
+     * into a line as they fly.
+     */
+    public void fireBurst(int r, int c, int row_p, int col_p, int count, int turns) {
+        int d = direction(row_p - r, col_p - c);
+        for (int speed = 1; speed <= count; speed++)
+            fireCompass(r, c, d, speed, turns);
+    }
+
+    private void fireCompass(int r, int c, int d, int speed, int turns) {
+        fire(r, c, DIR_ROW[d] * speed, DIR_COL[d] * speed, turns);
+    }
+
+    // The compass direction, 0 (up) to 7 clockwise, closest to (dr, dc).
+    private static int direction(int dr, int dc) {
+        double angle = Math.atan2(dc, -dr); // 0 is up, growing clockwise
+        return (int)Math.round(angle / (Math.PI / 4)) & 7;
+    }
+
+    /**
+     * Move every bullet in flight one turn, with the player at (row_p,
+     * col_p) on the given board, and return how many hit the player. Each
+     * bullet's move is swept cell by cell, and it marks the cells it leaves
+     * behind on the board as its trail. One that reaches the player's cell
+     * stops there, having hit them. One that has used up its turns, or would
+     * leave the board, is taken away instead, and its slot is freed.
+     */
+    public int update(Board board, int row_p, int col_p) {
+        if (ray == null || ray.getRows() != board.getRows() || ray.getCols() != board.getCols())
+            ray = new GridRay(board.getRows(), board.getCols());
+        int hits = 0, kept = 0;
+        for (int k = 0; k < liveCount; k++) {
+            int b = live[k];
+            boolean alive = life[b]-- > 0;
+            int r = row[b], c = col[b];
+            pastRow[b] = r;
+            pastCol[b] = c;
+            if (alive) {
+                if ((flags[b] & HOMING) != 0)
+                    steer(b, row_p, col_p);
+                ray.start(r, c, r + velRow[b], c + velCol[b]);
+                while (ray.next()) {
+                    board.shotIsTrailing(r, c);
+                    r = ray.getRow();
+                    c = ray.getCol();
+                    if (r == row_p && c == col_p) {
+                        hits++;
+                        break;
+                    }
+                }
+                if (ray.leftBoard()) {
+                    board.shotIsTrailing(r, c);
+                    alive = false;
+                }
+            }
+            if (alive) {
+                row[b] = r;
+                col[b] = c;
+                live[kept++] = b;
+                if (grid != null)
+                    grid.put(firstEntity + b, OccupancyGrid.BULLET, r, c);
+            } else {
+                free[freeCount++] = b;
+                if (grid != null)
+                    grid.remove(firstEntity + b);
+            }
+        }
+        liveCount = kept;
+        return hits;
+    }
+
+    // Turn a homing bullet going up or down to go left or right instead, if
+    // it is passing the player's row and they are further off than it goes
+    // in a turn; and the other way around.
+    private void steer(int b, int row_p, int col_p) {
+        int vr = velRow[b], vc = velCol[b], speed = Math.abs(vr) + Math.abs(vc);
+        int dr = row_p - row[b], dc = col_p - col[b];
+        if (vc == 0 && Math.abs(dr) <= 1 && Math.abs(dc) > speed) {
+            velRow[b] = 0;
+            velCol[b] = dc < 0 ? -speed : speed;
+        } else if (vr == 0 && Math.abs(dc) <= 1 && Math.abs(dr) > speed) {
+            velRow[b] = dr < 0 ? -speed : speed;
+            velCol[b] = 0;
+        }
+    }
+
+    /**
+     * A main() function, for testing. It fires every pattern and checks
+     * where the bullets go, that one passing through the player hits them,
+     * and that slots are reused once freed, then times turns with 50,000
+     * bullets in flight.
+     */
+    public static void main(String args[]) {
+        Board board = new Board(40, 40);
+        BulletPool pool = new BulletPool(64);
+        pool.fireRing(20, 20, 2, 3);
+        pool.update(board, 0, 0);
+        for (int k = 0; k < pool.size(); k++) {
+            int b = pool.get(k);
+            if (Math.max(Math.abs(pool.getRow(b) - 20), Math.abs(pool.getCol(b) - 20)) != 2)
+                throw new IllegalStateException("a ring bullet went the wrong way");
+        }
+        pool.update(board, 0, 0);
+        pool.update(board, 0, 0);
+        if (pool.size() != 8)
+            throw new IllegalStateException("ring bullets died too soon");
+        pool.update(board, 0, 0);
+        if (pool.size() != 0)
+            throw new IllegalStateException("ring bullets outlived their turns");
+
+        // A bullet fired at the player from 10 cells off, 3 cells a turn,
+        // would pass through them on its fourth turn, and stops there.
+        pool.fireAimed(10, 5, 10, 15, 3, 100);
+        int hits = 0;
+        for (int turn = 0; turn < 4; turn++)
+            hits += pool.update(board, 10, 15);
+        if (hits != 1 || pool.getCol(pool.get(0)) != 15)
+            throw new IllegalStateException("the aimed bullet missed the player");
+
+        // Bullets off the compass directions, fast enough to skip over the
+        // player's cell between turns, still hit them on the way past.
+        // Each shot is {row, col, velocity row, velocity col, player row,
+        // player col, hits}.
+        int[][] shots = {
+            { 0, 0, 5, 5, 2, 2, 1 },
+            { 10, 0, 0, 9, 10, 4, 1 },
+            { 20, 0, 2, 6, 21, 3, 1 },
+            { 20, 0, 2, 6, 20, 3, 0 }, // the line passes just below them
+            { 39, 30, -7, -2, 35, 29, 1 },
+        };
+        for (int[] shot : shots) {
+            pool = new BulletPool(1);
+            pool.fire(shot[0], shot[1], shot[2], shot[3], 1);
+            if (pool.update(board, shot[4], shot[5]) != shot[6])
+                throw new IllegalStateException("the shot from " + shot[0] + " " + shot[1]
+                                                + " got the wrong hits on " + shot[4] + " " + shot[5]);
+        }
+
+        // A spread fans out around the closest compass direction.
+        pool = new BulletPool(64);
+        pool.fireSpread(20, 20, 5, 21, 1, 10);
+        pool.update(board, 5, 21);
+        java.util.HashSet<Integer> cells = new java.util.HashSet<Integer>();
+        for (int k = 0; k < pool.size(); k++)
+            cells.add(pool.getRow(pool.get(k)) * 40 + pool.getCol(pool.get(k)));
+        if (!cells.equals(new java.util.HashSet<Integer>(java.util.Arrays.asList(19 * 40 + 19, 19 * 40 + 20, 19 * 40 + 21))))
+            throw new IllegalStateException("the spread went the wrong way: " + cells);
+
+        // Freed slots get used again, and a full pool refuses more shots.
+        pool = new BulletPool(10);
+        for (int round = 0; round < 100; round++) {
+            pool.fireBurst(20, 20, 20, 39, 5, 1);
+            pool.fireBurst(20, 20, 39, 20, 5, 1);
+            pool.fireRing(20, 20, 1, 1);
+            if (pool.size() != 10)
+                throw new IllegalStateException("the pool did not fill up");
+            pool.update(board, 0, 0);
+            pool.update(board, 0, 0);
+        }
+        StdOut.println("Patterns fly where they should, and slots are reused");
+
+        int n = 50000, size = 1000;
+        board = new Board(size, size);
+        pool = new BulletPool(n);
+        java.util.Random random = new java.util.Random(1);
+        long best = Long.MAX_VALUE;
+        for (int turn = 0; turn < 500; turn++) {
+            while (pool.size() < n)
+                pool.fireRing(random.nextInt(size), random.nextInt(size), 1 + random.nextInt(3), 20);
+            board.clearShotTrails();
+            long start = System.nanoTime();
+            pool.update(board, size / 2, size / 2);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        StdOut.printf("A turn for %d bullets takes %.3f ms\n", n, best / 1e6);
+    }
+}
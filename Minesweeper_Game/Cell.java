@@ -3,16 +3,17 @@
  *  Email:    kwalsh@holycross.edu
  *  Written:  7/13/2015
  *  
- *  Each Cell object manages information about and draws a
- *  single "cell" of the game grid. 
+ *  Each Cell object draws a single "cell" of the game grid,
+ *  using the state kept for it in the Board (or EndlessBoard).
  *----------------------------------------------------------------*/
 
 import GUI.*;
 import java.awt.Color;
 
 /**
- * A <i>Cell</i> object holds all information about the state of a single cell
- * of the minesweeper game board. This includes:
+ * A <i>Cell</i> object draws a single cell of the minesweeper game board. It
+ * does not hold any game state itself. Instead it is a view over one square of
+ * a Minefield, which keeps track of:
  *   - whether a mine is hidden in this cell or not
  *   - how many of its neighboring cells contain mines
  *   - whether it has been revealed yet or is still hidden
@@ -26,183 +27,96 @@ public class Cell extends Widget {
      */
     public static final int SIZE = 20;
 
-    /**
-     * Whether a mine is hidden in this cell or not.
-     */
-    protected boolean isMine;
+    // The minefield holding this cell's state, and where on it this cell is.
+    private Minefield field;
+    private int row, col;
+
+    // The same minefield when it is a Board, which is the only kind that has
+    // the secret game's players, monsters and bullets on it. Otherwise null.
+    private Board board;
+
+    // The color of the outline to draw if this cell is the hint, or null.
+    private Color hintColor;
 
     /**
-     * Whether this cell is "revealed" or not.
+     * Constructor: Initialize a cell to be drawn at the given x, y coordinates
+     * on the screen, showing the given square of the board.
      */
-    protected boolean isRevealed;
+    public Cell(Minefield field, int row, int col, int x, int y) {
+        super(x, y, SIZE, SIZE);
+        this.field = field;
+        if (field instanceof Board)
+            board = (Board)field;
+        this.row = row;
+        this.col = col;
+    }
 
-    
     /**
-     * Count of how many neighboring cells have mines.
+     * Point this cell at a different square of the board. Used when the view
+     * scrolls, so one Cell can show many squares over time.
      */
-    protected int neighborMineCount;
-    protected boolean isFlagged;
-    protected boolean hasPlayer;
-    protected int MonsterCount;
-    protected boolean hasBullet;
-    protected boolean usedMine;
-    protected boolean MineKilledYou;
-    protected boolean shotTrailing;
-    //protected boolean pastBulletLine; //idea to have a graphic 2 long line behind bullets to indicate their danger zone and direction. I don't think I'll have time for this.
+    public void showSquare(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
 
     /**
-     * Constructor: Initialize a cell to be drawn at the given x, y coordinates
-     * on the screen. The cell will be blank. That is, it will not be a mine,
-     * and it will have no neighboring mines so a neighbor mine count of zero.
+     * Outline this cell in the given color to show it is the hint, or pass
+     * null to stop.
      */
-    
-    public Cell(int x, int y) {
-        super(x, y, SIZE, SIZE);
-        this.isMine = false;
-        this.usedMine = false; //for secret game
-        this.isRevealed = false;
-        this.isFlagged = false;
-        this.neighborMineCount = 0;
-        this.hasPlayer = false;//
-        this.MonsterCount = 0;//for secret game
-        this.hasBullet = false;//
-        this.MineKilledYou = false;
-        this.shotTrailing = false;
-        //this.pastBulletLine = false;
+    public void setHintColor(Color color) {
+        hintColor = color;
     }
+
     //secret game stuff
-    public void blownUp(){
-        this.MineKilledYou = true;
-    }
-    public void MineUsed(){
-        this.usedMine = true;
-    }
     public boolean MineWasUsed(){
-        return this.usedMine;
+        return field.mineWasUsed(row, col);
     }
- 
-    public void placePlayer() {
-        hasPlayer = true;
-    }
-     public void removePlayer() {
-        hasPlayer = false;
-    }
-     public boolean isPlayer() {
-         return hasPlayer;    
+    public boolean isPlayer() {
+        return board != null && board.isPlayer(row, col);
     }
-     public void incrementMonsterCount() {
-         MonsterCount++;
+    public int MonsterCount() {
+        return board == null ? 0 : board.monsterCount(row, col);
     }
-     public void decreaseMonsterCount() {
-         MonsterCount--;
+    public boolean isBullet() {
+        return board != null && board.isBullet(row, col);
     }
-     public int MonsterCount() {
-         return MonsterCount;    
+    public boolean isShotTrailing() {
+        return board != null && board.isShotTrailing(row, col);
     }
 
-    public void placeBullet() {
-        hasBullet = true;
-    }
-     public void removeBullet() {
-        hasBullet = false;
-    }
-     public boolean isBullet() {
-         return hasBullet;    
-    }
-    
-    /**
-     * Hide a mine in this cell by changing the isMine variable to true.
-     */
-    public void makeFlag() {
-        isFlagged = true;
-    }
-    public void removeFlag() {
-        isFlagged = false;
-    }
     public boolean isFlag() {
-        return isFlagged;
-    }
-    public void plantMine() {
-        isMine = true;
+        return field.isFlag(row, col);
     }
 
     /**
      * Returns true if a mine is hidden in this cell, otherwise returns false.
      */
     public boolean isMine() {
-        return isMine;
+        return field.isMine(row, col);
     }
 
     /**
-     * Increment the neighbor mine count variable by one. 
-     */
-    public void incrementNeighborMineCount() {
-        neighborMineCount++;
-    }
-
-    /**
-     * Set the neighbor mine count variable to a given value.
-     */
-    public void setNeighborMineCount(int count) {
-        neighborMineCount = count;
-    }
-
-    /**
-     * Returns the value of the neighbor mine count variable.
+     * Returns the number of neighboring cells that have mines.
      */
     public int getNeighborMineCount() {
-        return neighborMineCount;
-    }
-
-    /**
-     * Change this cell so that it is "revealed" by setting isRevealed to true.
-     */
-    public void reveal() {
-        isRevealed = true;
+        return field.getNeighborMineCount(row, col);
     }
 
     /**
      * Returns true if this cell is "revealed", otherwise returns false.
      */
     public boolean isRevealed() {
-        return isRevealed;
-    }
-
-    /**
-     * Hide a mine in this cell by changidng the isMine variable to true.
-     */
-    public void makeMine() {
-        isMine = true;
-    }
-
-    /**
-     * Change this cell so that it shows the mine that is hiding in it.
-     */
-    public void showMine() {
-        if (isMine)
-            isRevealed = true;
+        return field.isRevealed(row, col);
     }
 
     /**
      * Check whether there are neighboring mines.
      */
     public boolean coastIsClear() {
-        return (neighborMineCount == 0);
-    }
-    
-    public void shotIsTrailing(){
-        this.shotTrailing = true;
-    }
-    public void shotNotTrailing(){
-        this.shotTrailing= false;
+        return field.coastIsClear(row, col);
     }
-    public boolean isShotTrailing() {
-        return this.shotTrailing;
-    }
-  
 
-        
-   
     /**
      * Paint this cell on the canvas. Don't call this directly, it is called by
      * the GUI system automatically. This function should draw something on the
@@ -237,13 +151,13 @@ public class Cell extends Widget {
                 
                     if (this.isMine()){
                         canvas.setPenColor(new Color(255, 0, 0));
-                        if(this.usedMine){
+                        if(this.MineWasUsed()){
                             canvas.setPenColor(Canvas.GREEN);
                         canvas.filledRectangle(this.x, this.y, 20, 20);
                         canvas.setPenColor(Canvas.BLACK);
                         canvas.rectangle(this.x, this.y, 20, 20);
                         }
-                        if(this.MineKilledYou){
+                        if(field.isBlownUp(row, col)){
                             canvas.filledRectangle(this.x, this.y, 20, 20);
                             canvas.setPenColor(Canvas.BLACK);
                             canvas.rectangle(this.x, this.y, 20, 20);
@@ -257,6 +171,12 @@ public class Cell extends Widget {
                     }
                     
                          
+                }
+                if (hintColor != null && !this.isRevealed()){
+                    canvas.setPenColor(hintColor);
+                    canvas.setPenRadius(3.0);
+                    canvas.rectangle(this.x + 1.5, this.y + 1.5, 17, 17);
+                    canvas.setPenRadius();
                 }
                 if (this.isShotTrailing()){
                     canvas.setPenColor(Canvas.BLACK);
@@ -0,0 +1,54 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Chunk holds one square piece of an endless board.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Chunk</i> is a SIZE by SIZE square of an EndlessBoard. Like Board, it
+ * keeps each yes/no property of its cells as a bitset, here with exactly one
+ * long per row, and its neighbor mine counts as a byte[]. The mines and counts
+ * can always be rebuilt from the game seed, so only the revealed, flagged and
+ * used-mine bits are state that the player has made.
+ */
+public class Chunk {
+
+    /**
+     * Number of cells along each side of a chunk. One row is one long.
+     */
+    public static final int SIZE = 64;
+
+    // Where this chunk is, counted in chunks from the origin.
+    final int cx, cy;
+
+    // One long per row for each yes/no property, bit c for column c.
+    final long[] mines = new long[SIZE];
+    final long[] revealed = new long[SIZE];
+    final long[] flagged = new long[SIZE];
+    final long[] usedMines = new long[SIZE];
+
+    // Neighbor mine count of each cell, indexed row * SIZE + col.
+    final byte[] counts = new byte[SIZE * SIZE];
+
+    // Whether the player has changed anything here, so it cannot just be
+    // thrown away and rebuilt from the seed.
+    boolean modified;
+
+    Chunk(int cx, int cy) {
+        this.cx = cx;
+        this.cy = cy;
+    }
+
+    /**
+     * Packs chunk coordinates into one long, for use as a map key.
+     */
+    public static long key(int cx, int cy) {
+        return ((long)cy << 32) | (cx & 0xFFFFFFFFL);
+    }
+
+    public long key() {
+        return key(cx, cy);
+    }
+}
@@ -0,0 +1,293 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  ChunkStore keeps the chunks of an endless board, holding the
+ *  recently used ones in memory and the rest on disk.
+ *
+ *  Example: java ChunkStore           # random walk, 64 chunk cache
+ *  Example: java ChunkStore 16 100000 # 16 chunk cache, 100000 steps
+ *----------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A <i>ChunkStore</i> is a cache of the Chunks of an EndlessBoard. At most
+ * capacity chunks are held in memory. When another one is needed, the least
+ * recently used chunk is evicted. If the player never changed it, it is just
+ * dropped, since it can be rebuilt from the seed. Otherwise its revealed,
+ * flagged and used-mine bits are spilled to a memory-mapped file, and read
+ * back in the next time the chunk is needed. The mines and counts are never
+ * written out, as they are always rebuilt from the seed.
+ *
+ * Each chunk that has ever been spilled owns one fixed slot of the file, so
+ * spilling it again just writes over its old bits. The file grows a segment
+ * at a time, and is deleted when the program exits.
+ *
+ * The store counts hits, misses, evictions, spills and page-ins, to help pick
+ * a capacity that fits the heap.
+ */
+public class ChunkStore {
+
+    /**
+     * Builds a chunk's mines and counts from scratch.
+     */
+    public interface Generator {
+        Chunk generate(int cx, int cy);
+    }
+
+    /**
+     * Number of chunks kept in memory if no capacity is given, about 1.6 MB.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Bytes of one slot of the spill file: the revealed, flagged and used-mine
+    // bitsets of a chunk, one long per row each.
+    private static final int SLOT_BYTES = 3 * Chunk.SIZE * 8;
+
+    // Slots in each mapped segment of the spill file.
+    private static final int SEGMENT_SLOTS = 256;
+
+    private final Generator generator;
+    private final int capacity;
+
+    // The chunks in memory by Chunk.key(), least recently used first.
+    private final LinkedHashMap<Long, Chunk> chunks;
+
+    // The last chunk looked up, since lookups come in runs on the same chunk.
+    private Chunk last;
+
+    // The spill file, opened the first time a chunk is spilled.
+    private FileChannel file;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+
+    // The slot in the spill file of every chunk that has been spilled.
+    private final HashMap<Long, Integer> slots = new HashMap<Long, Integer>();
+
+    private long hits, misses, evictions, spills, pageIns;
+
+    /**
+     * Create a store that holds at most capacity chunks in memory, building
+     * them with the given generator.
+     */
+    public ChunkStore(Generator generator, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1");
+        this.generator = generator;
+        this.capacity = capacity;
+        chunks = new LinkedHashMap<Long, Chunk>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= ChunkStore.this.capacity)
+                    return false;
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get a chunk, building it and reading back anything spilled for it if it
+     * is not in memory. This may evict another chunk, so a Chunk from an
+     * earlier get() must not be changed after a later one.
+     */
+    public Chunk get(int cx, int cy) {
+        if (last != null && last.cx == cx && last.cy == cy) {
+            hits++;
+            return last;
+        }
+        long key = Chunk.key(cx, cy);
+        Chunk chunk = chunks.get(key);
+        if (chunk != null) {
+            hits++;
+        } else {
+            misses++;
+            chunk = generator.generate(cx, cy);
+            Integer slot = slots.get(key);
+            if (slot != null) {
+                read(slot, chunk);
+                chunk.modified = true;
+                pageIns++;
+            }
+            chunks.put(key, chunk);
+        }
+        last = chunk;
+        return chunk;
+    }
+
+    /**
+     * Call f on every chunk in memory. Chunks on disk are left out.
+     */
+    public void forEachInMemory(Consumer<Chunk> f) {
+        for (Chunk c : chunks.values())
+            f.accept(c);
+    }
+
+    // Take a chunk out of memory, spilling it first if the player changed it.
+    private void evict(Chunk chunk) {
+        evictions++;
+        if (chunk == last)
+            last = null;
+        if (!chunk.modified)
+            return;
+        Integer slot = slots.get(chunk.key());
+        if (slot == null) {
+            slot = slots.size();
+            slots.put(chunk.key(), slot);
+        }
+        write(slot, chunk);
+        spills++;
+    }
+
+    // The mapped segment holding a slot, mapping more of the file if needed.
+    private MappedByteBuffer segment(int slot) {
+        try {
+            if (file == null) {
+                File f = File.createTempFile("minesweeper-chunks", ".dat");
+                f.deleteOnExit();
+                file = new RandomAccessFile(f, "rw").getChannel();
+            }
+            while (segments.size() <= slot / SEGMENT_SLOTS) {
+                long start = (long)segments.size() * SEGMENT_SLOTS * SLOT_BYTES;
+                segments.add(file.map(FileChannel.MapMode.READ_WRITE, start, (long)SEGMENT_SLOTS * SLOT_BYTES));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not spill chunks to disk", e);
+        }
+        return segments.get(slot / SEGMENT_SLOTS);
+    }
+
+    private void write(int slot, Chunk chunk) {
+        MappedByteBuffer buf = segment(slot);
+        int at = (slot % SEGMENT_SLOTS) * SLOT_BYTES;
+        for (int r = 0; r < Chunk.SIZE; r++) {
+            buf.putLong(at, chunk.revealed[r]);
+            buf.putLong(at + Chunk.SIZE * 8, chunk.flagged[r]);
+            buf.putLong(at + 2 * Chunk.SIZE * 8, chunk.usedMines[r]);
+            at += 8;
+        }
+    }
+
+    private void read(int slot, Chunk chunk) {
+        MappedByteBuffer buf = segment(slot);
+        int at = (slot % SEGMENT_SLOTS) * SLOT_BYTES;
+        for (int r = 0; r < Chunk.SIZE; r++) {
+            chunk.revealed[r] = buf.getLong(at);
+            chunk.flagged[r] = buf.getLong(at + Chunk.SIZE * 8);
+            chunk.usedMines[r] = buf.getLong(at + 2 * Chunk.SIZE * 8);
+            at += 8;
+        }
+    }
+
+    /**
+     * Get the most chunks this store keeps in memory.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of chunks in memory right now.
+     */
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Get the number of chunks that have been spilled to disk.
+     */
+    public int getNumSpilled() {
+        return slots.size();
+    }
+
+    /**
+     * Get the number of lookups that found the chunk in memory.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that had to build the chunk.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of chunks taken out of memory.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Get the number of times a chunk was written to disk.
+     */
+    public long getSpills() {
+        return spills;
+    }
+
+    /**
+     * Get the number of times a chunk was read back from disk.
+     */
+    public long getPageIns() {
+        return pageIns;
+    }
+
+    /**
+     * Returns the counters as one line of text.
+     */
+    public String toString() {
+        long lookups = hits + misses;
+        return String.format("%d/%d chunks in memory, %d on disk, hits %d, misses %d (%.2f%%), evictions %d, spills %d, page-ins %d",
+                             size(), capacity, getNumSpilled(), hits, misses,
+                             lookups == 0 ? 0.0 : 100.0 * misses / lookups,
+                             evictions, spills, pageIns);
+    }
+
+    /**
+     * A main() function, for testing. It walks the view of an endless board
+     * around at random, revealing a cell at every step, with a small cache so
+     * chunks keep getting spilled and read back. Then it checks that every
+     * revealed cell is still revealed.
+     */
+    public static void main(String args[]) {
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        EndlessBoard board = new EndlessBoard(1234, capacity);
+        java.util.Random random = new java.util.Random(1234);
+        int[] rows = new int[steps], cols = new int[steps];
+        int row = 0, col = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            row += (random.nextInt(3) - 1) * Game.VIEW_ROWS;
+            col += (random.nextInt(3) - 1) * Game.VIEW_COLS;
+            board.setView(row, col, Game.VIEW_ROWS, Game.VIEW_COLS);
+            rows[i] = row + random.nextInt(Game.VIEW_ROWS);
+            cols[i] = col + random.nextInt(Game.VIEW_COLS);
+            if (board.isMine(rows[i], cols[i]))
+                board.makeFlag(rows[i], cols[i]);
+            else
+                board.reveal(rows[i], cols[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int lost = 0;
+        for (int i = 0; i < steps; i++)
+            if (board.isMine(rows[i], cols[i]) ? !board.isFlag(rows[i], cols[i]) : !board.isRevealed(rows[i], cols[i]))
+                lost++;
+        StdOut.printf("%d steps in %.1f ms, %d cells lost\n", steps, elapsed / 1e6, lost);
+        StdOut.println(board.getStore());
+    }
+}
@@ -0,0 +1,84 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Counters keeps running totals of a board's state, so the
+ *  game never has to count cells to know how it is going.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Counters</i> object holds the totals for one Board: cells revealed,
+ * flags planted, mines, and monsters. The Board updates them every time it
+ * changes, so reading any of them takes O(1) time however big the board is,
+ * and the status box and the win check never have to count anything.
+ *
+ * Run with -Dminesweeper.debug=true to have Board.checkCounters() compare the
+ * totals against a full recount of the board after every move.
+ */
+public class Counters {
+
+    /**
+     * Whether the totals should be checked against a full recount.
+     */
+    public static final boolean DEBUG = Boolean.getBoolean("minesweeper.debug");
+
+    // Number of cells on the board.
+    final long cells;
+
+    // Cells revealed, and how many of those were mines.
+    long revealed, revealedMines;
+
+    long flagged;
+    int mines;
+    int monstersAlive, monstersKilled;
+
+    Counters(long cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Get the number of cells revealed, mines included.
+     */
+    public long getRevealed() {
+        return revealed;
+    }
+
+    /**
+     * Get the number of cells with a flag on them.
+     */
+    public long getFlagged() {
+        return flagged;
+    }
+
+    /**
+     * Get the number of mines on the board.
+     */
+    public int getMines() {
+        return mines;
+    }
+
+    /**
+     * Get the number of mines not yet covered by a flag, assuming every flag
+     * is right. This goes negative if the player plants too many flags.
+     */
+    public long getMinesLeft() {
+        return mines - flagged;
+    }
+
+    public int getMonstersAlive() {
+        return monstersAlive;
+    }
+
+    public int getMonstersKilled() {
+        return monstersKilled;
+    }
+
+    /**
+     * Get the number of cells without a mine that are still hidden. The game
+     * is won when this reaches 0.
+     */
+    public long getSafeCellsRemaining() {
+        return cells - mines - (revealed - revealedMines);
+    }
+}
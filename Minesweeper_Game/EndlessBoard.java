@@ -0,0 +1,349 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  EndlessBoard is a minefield with no edges, made up as the
+ *  player goes along.
+ *----------------------------------------------------------------*/
+
+import java.util.HashMap;
+
+/**
+ * An <i>EndlessBoard</i> goes on forever in every direction. It is built
+ * lazily out of Chunks. Whether a cell holds a mine is a pure function of the
+ * game seed, the chunk the cell is in, and the cell's place in the chunk, so
+ * any chunk can be rebuilt whenever it is needed without being stored. The
+ * chunks live in a ChunkStore, which keeps the recently used ones in memory
+ * and spills what the player changed in the others to disk.
+ *
+ * Openings are only uncovered inside the active area around the view. When
+ * one runs off the edge of that area, the cells where it stopped are saved
+ * against the chunk they fall in, and the opening carries on from them once
+ * that chunk comes near the view. This keeps the work and memory for each
+ * click bounded, however big the opening turns out to be.
+ *
+ * The 3 by 3 block of cells around the origin never holds a mine, so the game
+ * can always start by revealing (0, 0).
+ */
+public class EndlessBoard implements Minefield {
+
+    /**
+     * Chance that any one cell holds a mine.
+     */
+    public static final double DENSITY = 0.15;
+
+    // How many chunks past the edge of the view are kept active.
+    private static final int MARGIN = 1;
+
+    private final long seed;
+
+    // A cell is a mine when the top 53 bits of its hash are below this.
+    private final long threshold;
+
+    // Where the chunks are kept.
+    private final ChunkStore store;
+
+    // Cells where an opening stopped at the edge of the active area, kept as
+    // (row, col) pairs under the key of the chunk they are in.
+    private final HashMap<Long, IntStack> pending = new HashMap<Long, IntStack>();
+
+    // The active area, in chunk coordinates, inclusive.
+    private int minCx, maxCx, minCy, maxCy;
+
+    // Reused stack of (row, col) cells for uncoverNeighboringBlanks().
+    private final IntStack stack = new IntStack();
+
+    private long numRevealed = 0;
+    private long blownUpRow = Long.MIN_VALUE, blownUpCol = Long.MIN_VALUE;
+
+    /**
+     * Create an endless board whose mines are made from the given seed.
+     */
+    public EndlessBoard(long seed) {
+        this(seed, ChunkStore.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an endless board whose mines are made from the given seed, which
+     * keeps at most capacity chunks in memory.
+     */
+    public EndlessBoard(long seed, int capacity) {
+        this.seed = seed;
+        threshold = (long)(DENSITY * (1L << 53));
+        store = new ChunkStore(this::generate, capacity);
+        setView(0, 0, 1, 1);
+    }
+
+    /**
+     * Tell the board which cells are on screen. Chunks near them become the
+     * active area, and any openings waiting at their edges are carried on.
+     * Returns how many cells got revealed by the carried-on openings.
+     */
+    public int setView(int row, int col, int rows, int cols) {
+        minCx = Math.floorDiv(col, Chunk.SIZE) - MARGIN;
+        maxCx = Math.floorDiv(col + cols - 1, Chunk.SIZE) + MARGIN;
+        minCy = Math.floorDiv(row, Chunk.SIZE) - MARGIN;
+        maxCy = Math.floorDiv(row + rows - 1, Chunk.SIZE) + MARGIN;
+
+        int revealCount = 0;
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                IntStack seeds = pending.remove(Chunk.key(cx, cy));
+                if (seeds == null)
+                    continue;
+                stack.clear();
+                while (!seeds.isEmpty()) {
+                    int c = seeds.pop();
+                    int r = seeds.pop();
+                    revealCount += visit(r, c);
+                }
+                revealCount += flood();
+            }
+        }
+        return revealCount;
+    }
+
+    private boolean isActive(int cx, int cy) {
+        return cx >= minCx && cx <= maxCx && cy >= minCy && cy <= maxCy;
+    }
+
+    /**
+     * Get the number of cells revealed so far.
+     */
+    public long getNumRevealed() {
+        return numRevealed;
+    }
+
+    /**
+     * Get the number of chunks held in memory right now.
+     */
+    public int getNumChunks() {
+        return store.size();
+    }
+
+    /**
+     * Get the store the chunks are kept in, for its counters.
+     */
+    public ChunkStore getStore() {
+        return store;
+    }
+
+    /*----------------------------------------------------------------
+     *  Making mines from the seed
+     *----------------------------------------------------------------*/
+
+    // The SplitMix64 finalizer, which scrambles every bit of z into every bit
+    // of the result.
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // The hash that all of one chunk's mines are made from.
+    private long chunkHash(int cx, int cy) {
+        return mix64(seed ^ mix64(Chunk.key(cx, cy)));
+    }
+
+    // Whether cell (lr, lc) of the chunk with the given hash is a mine.
+    private boolean mineAt(long chunkHash, int lr, int lc) {
+        long h = mix64(chunkHash + (lr * Chunk.SIZE + lc) * 0x9E3779B97F4A7C15L);
+        return (h >>> 11) < threshold;
+    }
+
+    // Whether a cell anywhere on the board is a mine, worked out from scratch.
+    private boolean mineAt(int row, int col) {
+        if (Math.abs((long)row) <= 1 && Math.abs((long)col) <= 1)
+            return false;
+        int cx = Math.floorDiv(col, Chunk.SIZE), cy = Math.floorDiv(row, Chunk.SIZE);
+        return mineAt(chunkHash(cx, cy), row - cy * Chunk.SIZE, col - cx * Chunk.SIZE);
+    }
+
+    // Build a chunk's mines and neighbor counts from the seed. The counts
+    // along its edges look at the neighboring chunks' mines straight from the
+    // hash, so those chunks do not have to be built.
+    private Chunk generate(int cx, int cy) {
+        Chunk chunk = new Chunk(cx, cy);
+        int row0 = cy * Chunk.SIZE, col0 = cx * Chunk.SIZE;
+        long h = chunkHash(cx, cy);
+        for (int lr = 0; lr < Chunk.SIZE; lr++)
+            for (int lc = 0; lc < Chunk.SIZE; lc++)
+                if (mineAt(h, lr, lc) && !(Math.abs((long)row0 + lr) <= 1 && Math.abs((long)col0 + lc) <= 1))
+                    chunk.mines[lr] |= 1L << lc;
+        for (int lr = 0; lr < Chunk.SIZE; lr++) {
+            for (int lc = 0; lc < Chunk.SIZE; lc++) {
+                int n = 0;
+                for (int r = lr - 1; r <= lr + 1; r++) {
+                    for (int c = lc - 1; c <= lc + 1; c++) {
+                        if (r == lr && c == lc)
+                            continue;
+                        if (r >= 0 && r < Chunk.SIZE && c >= 0 && c < Chunk.SIZE) {
+                            if ((chunk.mines[r] & (1L << c)) != 0)
+                                n++;
+                        } else if (mineAt(row0 + r, col0 + c)) {
+                            n++;
+                        }
+                    }
+                }
+                chunk.counts[lr * Chunk.SIZE + lc] = (byte)n;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Get the chunk holding a cell from the store. It is only good until the
+     * next call, which may evict it.
+     */
+    protected Chunk chunk(int row, int col) {
+        return store.get(Math.floorDiv(col, Chunk.SIZE), Math.floorDiv(row, Chunk.SIZE));
+    }
+
+    /*----------------------------------------------------------------
+     *  Minefield
+     *----------------------------------------------------------------*/
+
+    public boolean inBounds(int row, int col) {
+        return true;
+    }
+
+    public boolean isMine(int row, int col) {
+        Chunk c = chunk(row, col);
+        return (c.mines[Math.floorMod(row, Chunk.SIZE)] & (1L << col)) != 0;
+    }
+
+    public int getNeighborMineCount(int row, int col) {
+        Chunk c = chunk(row, col);
+        return c.counts[Math.floorMod(row, Chunk.SIZE) * Chunk.SIZE + Math.floorMod(col, Chunk.SIZE)];
+    }
+
+    public boolean coastIsClear(int row, int col) {
+        return getNeighborMineCount(row, col) == 0;
+    }
+
+    public boolean reveal(int row, int col) {
+        Chunk c = chunk(row, col);
+        int lr = Math.floorMod(row, Chunk.SIZE);
+        if ((c.revealed[lr] & (1L << col)) != 0)
+            return false;
+        c.revealed[lr] |= 1L << col;
+        c.flagged[lr] &= ~(1L << col);
+        c.modified = true;
+        numRevealed++;
+        return true;
+    }
+
+    public boolean isRevealed(int row, int col) {
+        Chunk c = chunk(row, col);
+        return (c.revealed[Math.floorMod(row, Chunk.SIZE)] & (1L << col)) != 0;
+    }
+
+    /**
+     * Uncover the opening around a blank cell that has just been revealed, as
+     * far as the edge of the active area. Returns how many more cells got
+     * revealed. Where the opening stops at the edge, it is picked up again by
+     * setView() when the view gets close.
+     */
+    public int uncoverNeighboringBlanks(int row, int col) {
+        stack.clear();
+        if (coastIsClear(row, col)) {
+            stack.push(row);
+            stack.push(col);
+        }
+        return flood();
+    }
+
+    // Spread from every blank cell on the stack.
+    private int flood() {
+        int revealCount = 0;
+        while (!stack.isEmpty()) {
+            int col = stack.pop();
+            int row = stack.pop();
+            for (int r = row - 1; r <= row + 1; r++)
+                for (int c = col - 1; c <= col + 1; c++)
+                    if (r != row || c != col)
+                        revealCount += visit(r, c);
+        }
+        return revealCount;
+    }
+
+    // Reveal one cell next to a blank, and push it if it is a blank too. If
+    // it is outside the active area, save it for later instead. Returns the
+    // number of cells revealed.
+    private int visit(int row, int col) {
+        int cx = Math.floorDiv(col, Chunk.SIZE), cy = Math.floorDiv(row, Chunk.SIZE);
+        if (!isActive(cx, cy)) {
+            long key = Chunk.key(cx, cy);
+            IntStack seeds = pending.get(key);
+            if (seeds == null) {
+                seeds = new IntStack(16);
+                pending.put(key, seeds);
+            }
+            seeds.push(row);
+            seeds.push(col);
+            return 0;
+        }
+        if (!reveal(row, col))
+            return 0;
+        if (coastIsClear(row, col)) {
+            stack.push(row);
+            stack.push(col);
+        }
+        return 1;
+    }
+
+    public void makeFlag(int row, int col) {
+        Chunk c = chunk(row, col);
+        c.flagged[Math.floorMod(row, Chunk.SIZE)] |= 1L << col;
+        c.modified = true;
+    }
+
+    public void removeFlag(int row, int col) {
+        Chunk c = chunk(row, col);
+        c.flagged[Math.floorMod(row, Chunk.SIZE)] &= ~(1L << col);
+        c.modified = true;
+    }
+
+    public boolean isFlag(int row, int col) {
+        Chunk c = chunk(row, col);
+        return (c.flagged[Math.floorMod(row, Chunk.SIZE)] & (1L << col)) != 0;
+    }
+
+    /**
+     * Reveal the mines in every chunk that is in memory, which includes all
+     * of the ones near the view.
+     */
+    public void revealAllMines() {
+        store.forEachInMemory(c -> {
+            for (int r = 0; r < Chunk.SIZE; r++)
+                c.revealed[r] |= c.mines[r];
+            c.modified = true;
+        });
+    }
+
+    /**
+     * Flag the mines in every chunk that is in memory.
+     */
+    public void placeFlags() {
+        store.forEachInMemory(c -> {
+            for (int r = 0; r < Chunk.SIZE; r++)
+                c.flagged[r] |= c.mines[r];
+            c.modified = true;
+        });
+    }
+
+    public void blownUp(int row, int col) {
+        blownUpRow = row;
+        blownUpCol = col;
+    }
+
+    public boolean isBlownUp(int row, int col) {
+        return blownUpRow == row && blownUpCol == col;
+    }
+
+    public boolean mineWasUsed(int row, int col) {
+        Chunk c = chunk(row, col);
+        return (c.usedMines[Math.floorMod(row, Chunk.SIZE)] & (1L << col)) != 0;
+    }
+}
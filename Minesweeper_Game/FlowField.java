@@ -0,0 +1,215 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  FlowField works out how far the cells around the player are
+ *  from them, so all the monsters can find their way with one
+ *  search.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>FlowField</i> holds the number of steps from the cells near the
+ * player to the player, going up, down, left and right, and around
+ * obstacles: the used mines, which the player has already set off under a
+ * monster. It is made with one breadth-first search out from the player's
+ * cell. A monster then finds its way by stepping onto any neighbor one step
+ * closer than the cell it is on, so however many monsters there are, the
+ * pathfinding for a turn costs the one search.
+ *
+ * The search only covers a window of RADIUS cells around the player, or the
+ * whole board if it is smaller than that. Obstacles only matter to a monster
+ * that is close, and one further off just heads straight for the player, so
+ * the search costs the same on a 5000 x 5000 board as on a small one, and
+ * the field only needs memory for the window.
+ *
+ * The search is only run again when it is out of date: when the player is
+ * on another cell, or after invalidate() is called because an obstacle was
+ * added. A turn where the player stands still costs nothing. A cell outside
+ * the window, that cannot reach the player within it, or is an obstacle,
+ * has distance -1.
+ */
+public class FlowField {
+
+    /**
+     * The distance of a cell the player cannot be reached from.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * How far the window searched goes from the player, up, down, left and
+     * right.
+     */
+    public static final int RADIUS = 64;
+
+    private final int rows, cols;
+
+    // The size of the window, and its top left cell for the last search.
+    private final int height, width;
+    private int top, left;
+
+    // Steps from each cell of the window to the player, and the queue for
+    // the search, indexed (row - top) * width + (col - left).
+    private final int[] dist, queue;
+
+    // The player's cell when the field was made, or -1 if it is out of
+    // date.
+    private int source = -1;
+
+    /**
+     * Make an out of date field for a rows by cols board.
+     */
+    public FlowField(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        height = Math.min(rows, 2 * RADIUS + 1);
+        width = Math.min(cols, 2 * RADIUS + 1);
+        dist = new int[height * width];
+        queue = new int[height * width];
+        java.util.Arrays.fill(dist, UNREACHABLE);
+    }
+
+    /**
+     * Mark the field out of date, so the next update() searches again. Call
+     * this whenever an obstacle is added.
+     */
+    public void invalidate() {
+        source = -1;
+    }
+
+    /**
+     * Bring the field up to date for the player at (row, col) on the given
+     * board. Returns whether it had to search again.
+     */
+    public boolean update(Board board, int row, int col) {
+        if (row * cols + col == source)
+            return false;
+        source = row * cols + col;
+        top = Math.max(0, Math.min(row - RADIUS, rows - height));
+        left = Math.max(0, Math.min(col - RADIUS, cols - width));
+        java.util.Arrays.fill(dist, UNREACHABLE);
+        int start = (row - top) * width + (col - left);
+        dist[start] = 0;
+        queue[0] = start;
+        int head = 0, tail = 1;
+        while (head < tail) {
+            int i = queue[head++];
+            int r = i / width, c = i - r * width, d = dist[i] + 1;
+            if (r > 0)
+                tail = visit(board, i - width, r - 1, c, d, tail);
+            if (r < height - 1)
+                tail = visit(board, i + width, r + 1, c, d, tail);
+            if (c > 0)
+                tail = visit(board, i - 1, r, c - 1, d, tail);
+            if (c < width - 1)
+                tail = visit(board, i + 1, r, c + 1, d, tail);
+        }
+        return true;
+    }
+
+    // Give cell i of the window, at (r, c) in it, distance d and queue it,
+    // if it is not yet reached and is not an obstacle. Returns the new end
+    // of the queue.
+    private int visit(Board board, int i, int r, int c, int d, int tail) {
+        if (dist[i] != UNREACHABLE || board.mineWasUsed(top + r, left + c))
+            return tail;
+        dist[i] = d;
+        queue[tail] = i;
+        return tail + 1;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of steps from (row, col) to the player, or UNREACHABLE.
+     */
+    public int getDistance(int row, int col) {
+        int r = row - top, c = col - left;
+        if (r < 0 || r >= height || c < 0 || c >= width)
+            return UNREACHABLE;
+        return dist[r * width + c];
+    }
+
+    /**
+     * A main() function, for testing. It checks the distances against the
+     * plain row plus column distance on a board with no obstacles, checks
+     * that monsters following the field on a board walled with used mines
+     * get one step closer every turn, and checks that on a big board only
+     * the window around the player is searched. Then it times the search on
+     * a 5000 x 5000 board.
+     */
+    public static void main(String args[]) {
+        int rows = 40, cols = 60;
+        Board board = new Board(rows, cols);
+        FlowField field = new FlowField(rows, cols);
+        field.update(board, 13, 27);
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                if (field.getDistance(r, c) != Math.abs(r - 13) + Math.abs(c - 27))
+                    throw new IllegalStateException("wrong distance at " + r + " " + c);
+        if (field.update(board, 13, 27))
+            throw new IllegalStateException("searched again for the same cell");
+
+        // A wall of used mines down the middle, with one gap near the bottom.
+        for (int r = 0; r < rows - 3; r++) {
+            board.makeMine(r, cols / 2);
+            board.mineUsed(r, cols / 2);
+        }
+        field.invalidate();
+        int pr = 5, pc = cols / 2 + 10;
+        field.update(board, pr, pc);
+        MonsterPool pool = new MonsterPool(200);
+        java.util.Random random = new java.util.Random(1);
+        while (!pool.isFull()) {
+            int r = random.nextInt(rows), c = random.nextInt(cols / 2);
+            if (field.getDistance(r, c) > 30)
+                pool.spawn(r, c);
+        }
+        for (int turn = 0; turn < 30; turn++) {
+            int[] before = new int[pool.size()];
+            for (int i = 0; i < pool.size(); i++)
+                before[i] = field.getDistance(pool.getRow(i), pool.getCol(i));
+            pool.takeTurns(pr, pc, field); // with no bullets, so no one stops to fire
+            for (int i = 0; i < pool.size(); i++)
+                if (field.getDistance(pool.getRow(i), pool.getCol(i)) != before[i] - 1)
+                    throw new IllegalStateException("monster " + i + " did not get closer on turn " + turn);
+        }
+        StdOut.println("Distances are right, and monsters walk around the wall");
+
+        rows = cols = 5000;
+        board = new Board(rows, cols);
+        field = new FlowField(rows, cols);
+        field.update(board, 10, 4000);
+        for (int r = 0; r < 3 * RADIUS; r++)
+            for (int c = 4000 - 2 * RADIUS; c < 4000 + 2 * RADIUS; c++) {
+                boolean inside = r <= 2 * RADIUS && Math.abs(c - 4000) <= RADIUS;
+                int expected = inside ? Math.abs(r - 10) + Math.abs(c - 4000) : UNREACHABLE;
+                if (field.getDistance(r, c) != expected)
+                    throw new IllegalStateException("wrong distance at " + r + " " + c + " near the edge");
+            }
+        StdOut.println("Only the window around the player is searched");
+
+        for (int k = 0; k < 20000 * 25; k++) {
+            int r = random.nextInt(rows), c = random.nextInt(cols);
+            board.makeMine(r, c);
+            board.mineUsed(r, c);
+        }
+        long best = Long.MAX_VALUE, worst = 0;
+        for (int k = 0; k < 1000; k++) {
+            long start = System.nanoTime();
+            field.update(board, 2500 + k % 2, 2500);
+            long nanos = System.nanoTime() - start;
+            best = Math.min(best, nanos);
+            if (k >= 100)
+                worst = Math.max(worst, nanos);
+        }
+        StdOut.printf("Searching around the player on a %d x %d board with 500000 obstacles takes %.3f ms, "
+                      + "at worst %.3f ms\n", rows, cols, best / 1e6, worst / 1e6);
+    }
+}
@@ -13,24 +13,25 @@ import GUI.*;
 /**
  * A <i>Game</i> object manages all information about a minesweeper game as it
  * is being played and displayed on the screen. This includes information about
- * all of the cells (this is stored in a 2-D array of Cell objects), how many
+ * all of the cells (this is stored in a packed Board, drawn by Cell objects), how many
  * flags have been planted, how many mines have been deployed, etc. Game extends
  * Window, so it can be drawn on the screen. It also extends EventListener so it
  * can respond to user interaction.
  */
 public class Game extends Window implements EventListener {
     /**
-     * Number of cells tall the game board will be.
+     * Number of cells tall the visible part of the game board will be. Bigger
+     * boards scroll underneath this view.
      */
-    public static final int NUM_ROWS = 20;
+    public static final int VIEW_ROWS = 20;
     boolean Teleport = false;
     boolean Secret = false;
     /**
-     * Number of cells wide the game board will be.
+     * Number of cells wide the visible part of the game board will be.
      */
-    public static final int NUM_COLS = 30;
+    public static final int VIEW_COLS = 30;
 
-    private int[] PlayerLocation = new int[] {9, 15};
+    private int[] PlayerLocation;
     int turns = 0;
    
     protected int boostMeter;
@@ -43,9 +44,9 @@ public class Game extends Window implements EventListener {
     // | G  |                Grid of Cells                  | G  |
     // | I  |                                               | I  |
     // | N  |                                               | N  |
-    // | =  |       600 = NUM_COLS * Cell.SIZE wide         | =  |
+    // | =  |       600 = VIEW_COLS * Cell.SIZE wide        | =  |
     // | 50 |                      b                        | 50 |
-    // |    |       400 = NUM_ROWS * Cell.SIZE tall         |    |
+    // |    |       400 = VIEW_ROWS * Cell.SIZE tall        |    |
     // |    |                                               |    |
     // |    |                                               |    |
     // |    |                                               |    |
@@ -76,15 +77,15 @@ public class Game extends Window implements EventListener {
 
     /**
      * Width of the grid part of the window, in pixels.
-     * Equal to NUM_COLS * Cell.SIZE.
+     * Equal to VIEW_COLS * Cell.SIZE.
      */
-    public static final int GRID_WIDTH = NUM_COLS * Cell.SIZE;
+    public static final int GRID_WIDTH = VIEW_COLS * Cell.SIZE;
  
     /**
      * Height of the grid part of the window, in pixels.
-     * Equal to NUM_ROWS * Cell.SIZE.
+     * Equal to VIEW_ROWS * Cell.SIZE.
      */
-    public static final int GRID_HEIGHT = NUM_ROWS * Cell.SIZE;
+    public static final int GRID_HEIGHT = VIEW_ROWS * Cell.SIZE;
 
     /**
      * Margin around the edges of the canvas.
@@ -96,12 +97,26 @@ public class Game extends Window implements EventListener {
      */
     private static final int SPACE = 25;
   
-    // A 2-D array of Cell objects to keep track of the board state.
-    private Cell[][] cells = new Cell[NUM_ROWS][NUM_COLS];
-    private Monster[] evil = new Monster [101];//I considered making this a list, but there was no noticable lag while playing from my computer with all 101 monsters so I deemed it not needed.
-    private int numMines = 0;    // number of mines deployed
-    private int numRevealed = 0; // number of cells revealed so far
-    private int DeadMonsters = 0;// number of Monsters killed
+    // The packed state of every cell. Only the part of it that is on screen
+    // has Cell widgets, which get pointed at new squares as the view scrolls.
+    private Board board;
+    private Cell[][] cells;
+
+    // The minefield being played. It is the same object as board, except in
+    // an endless game, where it is the EndlessBoard and board is null.
+    private Minefield field;
+    private EndlessBoard endless;
+
+    // Board row and column shown in the top left corner of the view.
+    private int viewRow = 0, viewCol = 0;
+
+    // The monsters of the secret game and their bullets, where they are,
+    // and the distances monsters follow to the player, or null in any other
+    // game.
+    private MonsterPool monsters;
+    private BulletPool bullets;
+    private OccupancyGrid occupancy;
+    private FlowField flow;
     // Whether or not the game has been won.
     private boolean gameWon = false;
 
@@ -125,20 +140,58 @@ public class Game extends Window implements EventListener {
 
     private Boosts boost;
 
+    // Works out hints in the background, and the hint on show, if any. The
+    // hint is only touched on the event thread, and so is the number of the
+    // latest request, which goes up whenever a hint is asked for or the
+    // board changes, so an answer queued before that is dropped.
+    private final HintEngine hints = new HintEngine();
+    private HintEngine.Hint hint;
+    private int hintRequest;
+
+    // The neighbors of a chorded cell, reused from one chord to the next.
+    private final RevealBatch chordBatch = new RevealBatch();
+
+    /**
+     * The number of blank cells an opening needs before a click on it is
+     * uncovered in the background, so the click returns straight away.
+     */
+    public static final long BACKGROUND_REVEAL_CELLS = 1 << 20;
+
+    // Whether an opening is being uncovered in the background. The board must
+    // not be changed or read for a hint until it is done, so clicks and keys
+    // other than quit are ignored meanwhile. Only touched on the event thread.
+    private boolean revealing = false;
+
     /**
      * Constructor: Initializes a new game, but does not deploy any mines, plant
      * any flags, etc. The difficulty is either "easy", "medium", or "hard", and
      * will be used to load the proper top scores file. Name is used as the
-     * user's name.
+     * user's name. The board is rows by cols cells, and scrolls if it is bigger
+     * than VIEW_ROWS by VIEW_COLS. If the difficulty is "endless", rows and
+     * cols are ignored, the board goes on forever, and its mines are made from
+     * the StdRandom seed, so deployMines() should not be called.
      */
-    private int spawned = 0;
-
-    public Game(String name, String difficulty) {
+    public Game(String name, String difficulty, int rows, int cols) {
         super("Minesweeper!", WIDTH, HEIGHT);
         
         this.username = name;
         this.difficulty = difficulty;
         Secret = difficulty.equals("SecretGame");
+        if (difficulty.equals("endless")) {
+            field = endless = new EndlessBoard(StdRandom.getSeed());
+            rows = VIEW_ROWS;
+            cols = VIEW_COLS;
+        } else {
+            field = board = new Board(rows, cols);
+        }
+        if (Secret) {
+            occupancy = new OccupancyGrid(rows, cols, MonsterPool.CAP + BulletPool.CAP);
+            board.setOccupancy(occupancy);
+            bullets = new BulletPool(BulletPool.CAP, occupancy, MonsterPool.CAP);
+            monsters = new MonsterPool(MonsterPool.CAP, occupancy, bullets);
+            flow = new FlowField(rows, cols);
+        }
+        PlayerLocation = new int[] {rows/2 - 1, cols/2};
         // Create the background
         setBackgroundColor(Canvas.BLACK);
 
@@ -165,29 +218,148 @@ public class Game extends Window implements EventListener {
         add(timer);add(status);//adds all the info boxes
 
         boostMeter = 0;
-        int size;
-        size = 600;
-        for (int row = 0; row < NUM_ROWS; row++)
-            for (int col = 0; col < NUM_COLS; col++){
-                cells[row][col] = new Cell(MARGIN+Cell.SIZE*col, MARGIN+Cell.SIZE*row);
+        cells = new Cell[Math.min(rows, VIEW_ROWS)][Math.min(cols, VIEW_COLS)];
+        for (int row = 0; row < cells.length; row++)
+            for (int col = 0; col < cells[row].length; col++){
+                cells[row][col] = new Cell(field, row, col, MARGIN+Cell.SIZE*col, MARGIN+Cell.SIZE*row);
                 add(cells[row][col]);
                
             }
+        if (Secret)
+            followPlayer();
+        if (endless != null) {
+            // The origin is always a blank, so the game opens on an opening
+            // centered in the view.
+            scrollTo(-VIEW_ROWS/2, -VIEW_COLS/2);
+            endless.reveal(0, 0);
+            endless.uncoverNeighboringBlanks(0, 0);
+        }
+    }
+
+    /**
+     * Scroll the view so the given board row and column are in the top left
+     * corner. The view is kept on the board, unless the board is endless.
+     */
+    public void scrollTo(int row, int col) {
+        if (endless != null) {
+            viewRow = row;
+            viewCol = col;
+            endless.setView(viewRow, viewCol, cells.length, cells[0].length);
+        } else {
+            viewRow = Math.max(0, Math.min(row, board.getRows() - cells.length));
+            viewCol = Math.max(0, Math.min(col, board.getCols() - cells[0].length));
+        }
+        for (int r = 0; r < cells.length; r++)
+            for (int c = 0; c < cells[r].length; c++)
+                cells[r][c].showSquare(viewRow + r, viewCol + c);
+        markHint();
+    }
+
+    /**
+     * Ask for a hint about the board as it is now. The snapshot is taken
+     * here, on the event thread, which changes the board; the hint is worked
+     * out on another thread, and shown in the grid and the help box when it
+     * is ready, unless the board changes first.
+     */
+    public void requestHint() {
+        if (board == null || gameWon || gameLost)
+            return;
+        help.setHint("Hint: thinking...");
+        int request = ++hintRequest;
+        hints.request(new Snapshot(board),
+                      h -> java.awt.EventQueue.invokeLater(() -> showHint(h, request)));
+    }
+
+    // Show a hint that has just been worked out, scrolling to it if needed,
+    // unless the board changed or another hint was asked for since.
+    private void showHint(HintEngine.Hint h, int request) {
+        if (request != hintRequest || gameWon || gameLost)
+            return;
+        hint = h;
+        help.setHint(String.format("Hint: %s %.1f ms%s",
+                                   h.isSafe() ? "safe" : String.format("%.0f%% risk", 100 * h.probability),
+                                   h.nanos / 1e6, h.cached ? " (cached)" : ""));
+        if (h.row < viewRow || h.row >= viewRow + cells.length
+            || h.col < viewCol || h.col >= viewCol + cells[0].length)
+            scrollTo(h.row - cells.length / 2, h.col - cells[0].length / 2);
+        else
+            markHint();
+        refresh();
+    }
+
+    // The board changed, so any hint is out of date.
+    private void clearHint() {
+        hintRequest++;
+        hints.cancel();
+        hint = null;
+        help.setHint(null);
+        markHint();
+    }
+
+    // Outline the hinted cell, if it is in view.
+    private void markHint() {
+        for (int r = 0; r < cells.length; r++)
+            for (int c = 0; c < cells[r].length; c++)
+                cells[r][c].setHintColor(hint != null && hint.row == viewRow + r && hint.col == viewCol + c
+                                         ? (hint.isSafe() ? Canvas.GREEN : Canvas.ORANGE) : null);
+    }
+
+    // Scroll the view, if needed, so the player is not right at its edge.
+    private void followPlayer() {
+        int edge = 4;
+        int row = viewRow, col = viewCol;
+        if (PlayerLocation[0] < viewRow + edge)
+            row = PlayerLocation[0] - edge;
+        else if (PlayerLocation[0] >= viewRow + cells.length - edge)
+            row = PlayerLocation[0] - cells.length + edge + 1;
+        if (PlayerLocation[1] < viewCol + edge)
+            col = PlayerLocation[1] - edge;
+        else if (PlayerLocation[1] >= viewCol + cells[0].length - edge)
+            col = PlayerLocation[1] - cells[0].length + edge + 1;
+        if (row != viewRow || col != viewCol)
+            scrollTo(row, col);
     }
     public int getBoostMeter(){
         return boostMeter;
     }
     public void revealAllMines(){
-         for (int row = 0; row < NUM_ROWS; row++)
-            for (int col = 0; col < NUM_COLS; col++)
-                if (cells[row][col].isMine())
-                    cells[row][col].reveal();
+        field.revealAllMines();
     }
     public void placeFlags(){
-           for (int row = 0; row < NUM_ROWS; row++)
-            for (int col = 0; col < NUM_COLS; col++)
-                if (cells[row][col].isMine())
-                    cells[row][col].makeFlag();
+        field.placeFlags();
+    }
+
+    /**
+     * Returns true if this game is played on an endless board.
+     */
+    public boolean isEndless(){
+        return endless != null;
+    }
+
+    /**
+     * Take a snapshot of what the player can see of the board, for the
+     * Solver and anything else that should not peek at the mines. Endless
+     * boards have no snapshot.
+     */
+    public Snapshot snapshot(){
+        if (endless != null)
+            throw new IllegalStateException("endless boards have no snapshot");
+        return new Snapshot(board);
+    }
+
+    /**
+     * Get the number of cells revealed so far.
+     */
+    public long getNumRevealed(){
+        return endless != null ? endless.getNumRevealed() : board.getCounters().getRevealed();
+    }
+
+    /**
+     * Get the number of chunks of an endless board held in memory, or 0 if
+     * the board is not endless.
+     */
+    public int getNumChunks(){
+        return endless != null ? endless.getNumChunks() : 0;
     }
                 
 
@@ -200,7 +372,15 @@ public class Game extends Window implements EventListener {
     }
     
     public int getNumDeadMonsters(){
-        return DeadMonsters;
+        return board.getCounters().getMonstersKilled();
+    }
+
+    /**
+     * Get the number of monsters still to be killed in the secret game,
+     * counting the ones not spawned yet.
+     */
+    public int getNumMonstersLeft(){
+        return monsters == null ? 0 : monsters.getCap() - getNumDeadMonsters();
     }
         
             
@@ -209,14 +389,32 @@ public class Game extends Window implements EventListener {
      * Get the number of mines that are deployed.
      */
     public int getNumMinesDeployed() {
-        return numMines;
+        return endless != null ? 0 : board.getCounters().getMines();
     }
 
     /**
      * Get the number of hidden cells remaining to be revealed.
      */
     public int getNumCellsRemaining() {
-        return NUM_ROWS * NUM_COLS - numRevealed;
+        return getNumSafeCellsRemaining() + getNumMinesDeployed();
+    }
+
+    /**
+     * Get the number of hidden cells without a mine. The game is won when
+     * this reaches 0.
+     */
+    public int getNumSafeCellsRemaining() {
+        return endless != null ? 0 : (int)board.getCounters().getSafeCellsRemaining();
+    }
+
+    /**
+     * Get the total number of cells on the board. An endless board is counted
+     * as the size of the view.
+     */
+    public int getNumCells() {
+        if (endless != null)
+            return cells.length * cells[0].length;
+        return board.getRows() * board.getCols();
     }
 
     /**
@@ -225,54 +423,50 @@ public class Game extends Window implements EventListener {
      * a cell, so the timer should not start yet.
      */
     public void deployMines(int mines) {
-        // TODO: Add code here to deploy mines by calling makeMine() on some of
-        // the cells, at random. Use StdRandom() for picking random numbers.
-        // Each cell also has a variable to track how many of its neighboring
-        // cells contain a mine, so you will need to update that variable too.
-        // See the increementNeighborMineCount() and setNeighborMineCount()
-        // functions in the Cell class, which are meant for this purpos
-        if(mines == 101)
-             cells[PlayerLocation[0]][PlayerLocation[1]].placePlayer();
-        for (int i = 0; i < mines; i++){
-                int row = 0;
-                int col = 0;
-                while(true){
-                    row = StdRandom.uniform(NUM_ROWS-1);
-                    col = StdRandom.uniform(NUM_COLS-1);
-                    if (!cells[row][col].isMine())
-                        break;
-                }
-                cells[row][col].makeMine();
-                numMines++;
-                for (int m = -1; m < 2; m++)//nested loop creating a 3 by 3 grid to increase neighbor mine count around the mine.
-                    for (int n = -1; n < 2; n++)
-                        if  (m != 0 || n != 0)
-                            if(!(row + m < 0) && !(col + n < 0) && !(row + m > NUM_ROWS - 1) && !(col + n > NUM_COLS - 1)) 
-                                cells[row+m][col+n].incrementNeighborMineCount();//sets neighbor
-                          
-            
-    
-            }
+        // The mines are picked by the Board. It gets its own generator seeded
+        // from StdRandom, so the same seed always gives the same mines.
+        if(Secret)
+             board.placePlayer(PlayerLocation[0], PlayerLocation[1]);
+        board.deployMines(mines, new java.util.Random(StdRandom.getSeed()));
     }
-    public static void spawn(Monster[] evil,int p_row, int p_col, int turns, int spawned){
+
+    /**
+     * Deploy the given number of mines so that the board can be cleared
+     * without guessing, and open the first click for the player. The layout
+     * comes from the StdRandom seed, so the same seed gives the same board.
+     */
+    public void deployNoGuessMines(int mines) {
+        NoGuessGenerator gen = new NoGuessGenerator(board.getRows(), board.getCols(),
+                                                    mines, StdRandom.getSeed());
+        if (!gen.generate())
+            StdOut.println("No no-guess layout was found, so this board may need a guess.");
+        gen.deploy(board);
+
+        // The layout was checked from this click, so make it for the player.
+        int row = gen.getStartRow(), col = gen.getStartCol();
+        board.reveal(row, col);
+        board.uncoverNeighboringBlanks(row, col);
+        scrollTo(row - cells.length / 2, col - cells[0].length / 2);
+    }
+    public static void spawn(MonsterPool monsters, int p_row, int p_col, int rows, int cols){
             int m_row = 0, m_col = 0;
             int quadrant = 4; //1, 2, 3, or, 4
-            if (p_row <= 9)//proud of this setup, two if statements determines which of the 4 quadrants the player is in.
+            if (p_row < rows / 2)//proud of this setup, two if statements determines which of the 4 quadrants the player is in.
                 quadrant += -2;
-            if (p_col <= 14)
+            if (p_col < cols / 2)
                 quadrant += -1;
             switch (quadrant){
             case 1:
-                m_row = 19;
-                m_col = 29;  
+                m_row = rows - 1;
+                m_col = cols - 1;  
                 break;
             case 2:
-                m_row = 19;
+                m_row = rows - 1;
                 m_col = 0; 
                 break;
             case 3:
                 m_row = 0;
-                m_col = 29; 
+                m_col = cols - 1; 
                 break;
             case 4:
                 m_row = 0;
@@ -280,34 +474,66 @@ public class Game extends Window implements EventListener {
                 break;
             }
             //StdOut.println(m_row + " " + m_col);
-            evil[spawned] = new Monster(m_row, m_col);
+            monsters.spawn(m_row, m_col);
                 
                 
         }
                           
         
-    public static int uncoverNeighboringBlanks(int row, int col, int num, Cell[][] cells){//this is a recursive function used to uncover all neighboring blanks
-        int revealCount = 0;
-        if(row < 0 || row > NUM_ROWS - 1 || col < 0 || col > NUM_COLS - 1)//base case to prevent out of bounds errors
-            return revealCount;
-        if (num == 1)//this skips this check the first pass because the mouse would have already revealed it.
-            if (cells[row][col].isRevealed())//base case
-                return revealCount;
-       
-        cells[row][col].reveal();
-        if (num == 1)
-            revealCount++;
-        if (!cells[row][col].coastIsClear())//base case
-            return revealCount;
-        
-  
-        revealCount += uncoverNeighboringBlanks(row - 1, col, 1, cells) +  uncoverNeighboringBlanks(row + 1, col, 1, cells) + uncoverNeighboringBlanks(row, col - 1, 1, cells) +uncoverNeighboringBlanks(row, col + 1, 1, cells); //does all needed recursion and adds each revealed to revealCount.
-      
-        return revealCount;
-                    
+    /**
+     * Uncover the opening around a blank cell that was just revealed, and
+     * return how many more cells got revealed. See Board for how it is done.
+     */
+    public int uncoverNeighboringBlanks(int row, int col){
+        return field.uncoverNeighboringBlanks(row, col);
     }
 
- 
+    // Uncover the opening around (row, col) on the fork-join pool, where the
+    // Board splits it into bands of rows, and return right away. The win
+    // check and the repaint are done back on the event thread once it is
+    // finished.
+    private void uncoverInBackground(int row, int col){
+        revealing = true;
+        java.util.concurrent.CompletableFuture.runAsync(() -> board.uncoverNeighboringBlanks(row, col))
+            .whenComplete((done, failure) -> java.awt.EventQueue.invokeLater(() -> {
+                revealing = false;
+                if (failure != null)
+                    throw new IllegalStateException("uncovering an opening failed", failure);
+                checkForWin();
+                refresh();
+            }));
+    }
+
+    // End the game if every cell without a mine has been revealed. An endless
+    // game can only be lost.
+    private void checkForWin(){
+        checkCounters();
+        if (endless == null && getNumSafeCellsRemaining() == 0){
+            timer.stopCounting();
+            placeFlags();
+            gameWon = true;
+            StdOut.println("CONGRATULATIONS YOU WIN!!!! Click anywhere to view the leadboard!"); 
+        }
+    }
+
+    // In debug mode, make sure the running totals match a full recount.
+    private void checkCounters(){
+        if (!Counters.DEBUG || board == null)
+            return;
+        board.checkCounters();
+        int alive = monsters == null ? 0 : monsters.size();
+        if (alive != board.getCounters().getMonstersAlive())
+            throw new IllegalStateException("counters drifted: monsters alive "
+                + board.getCounters().getMonstersAlive() + " (counted " + alive + ")");
+        for (int i = 0; i < alive; i++)
+            if (!occupancy.isAt(i, monsters.getRow(i), monsters.getCol(i)))
+                throw new IllegalStateException("occupancy drifted: monster " + i + " is not on its cell");
+        for (int k = 0; bullets != null && k < bullets.size(); k++) {
+            int b = bullets.get(k);
+            if (!occupancy.isAt(MonsterPool.CAP + b, bullets.getRow(b), bullets.getCol(b)))
+                throw new IllegalStateException("occupancy drifted: bullet " + b + " is not on its cell");
+        }
+    }
 
     /**
      * Respond to a mouse click. This function will be called each time the user
@@ -332,8 +558,12 @@ public class Game extends Window implements EventListener {
             return;
         }
 
-        // If the user middle-clicked, ignore it.
-        if (!button.equals("left") && !button.equals("right"))
+        // If an opening is still being uncovered, ignore the mouse click.
+        if (revealing)
+            return;
+
+        // Only the secret game ignores the middle button. Otherwise it chords.
+        if (Secret && button.equals("middle"))
             return;
         
         // If the user clicked outside of the game grid, ignore it.
@@ -349,19 +579,27 @@ public class Game extends Window implements EventListener {
             row = PlayerLocation[0];
             col = PlayerLocation[1];
             if (Teleport){
-                cells[PlayerLocation[0]][PlayerLocation[1]].removePlayer();
-                row = (int)((y - MARGIN) / Cell.SIZE);
-                col = (int)((x - MARGIN) / Cell.SIZE);
+                board.removePlayer();
+                row = viewRow + (int)((y - MARGIN) / Cell.SIZE);
+                col = viewCol + (int)((x - MARGIN) / Cell.SIZE);
             }
         
         } else {
-            row = (int)((y - MARGIN) / Cell.SIZE);
-            col = (int)((x - MARGIN) / Cell.SIZE);
+            row = viewRow + (int)((y - MARGIN) / Cell.SIZE);
+            col = viewCol + (int)((x - MARGIN) / Cell.SIZE);
         }
+        if (!field.inBounds(row, col))//the view can be bigger than a small board
+            return;
 
         // StdOut.printf("You clicked row %d column %d with button %s\n", row, col, button);
+        if (!Secret)
+            clearHint();
+        if (button.equals("middle")) {
+            chord(row, col);
+            return;
+        }
         if (Teleport){
-            cells[row][col].placePlayer();
+            board.placePlayer(row, col);
             PlayerLocation[0] = row;
             PlayerLocation[1] = col;       
             boostMeter += -4;
@@ -372,23 +610,12 @@ public class Game extends Window implements EventListener {
         if (button.equals("left")){
             //StdOut.println(getNumCellsRemaining() - getNumMinesDeployed());
         
-            if(cells[row][col].isFlag())
-                cells[row][col].removeFlag();
+            if(field.isFlag(row, col))
+                field.removeFlag(row, col);
             else{
-                if(!cells[row][col].isRevealed()){
-                    cells[row][col].reveal();
-                    if(!cells[row][col].isMine()){
-                        numRevealed++;
-                        //StdOut.println(getNumCellsRemaining() - getNumMinesDeployed());                            
-                     
-
-                    }
-                else{
-                    gameLost = true;
-                    revealAllMines();
-                    cells[row][col].blownUp();
-                    timer.stopCounting();
-                    StdOut.println("BOOOOOM! You Lost! Click anywhere to view leadboard!");
+                if(field.reveal(row, col)){
+                    if(field.isMine(row, col)){
+                    lose(row, col);
                     /*show();
                       try {
                         Thread.sleep(5000);
@@ -399,27 +626,73 @@ public class Game extends Window implements EventListener {
                     //I tried the above method to make a more seemless transition but I couldn't get it to repaint the revealed mines before the starting the sleep and hiding. I thought show should repaint the screen first but I couldn't get this to work.After like an hour and a half of looking online and trying things I decided to accept defeat and move on to something else.
                     
                 }
-                    if (cells[row][col].coastIsClear() && !cells[row][col].isMine())
-                        numRevealed += uncoverNeighboringBlanks(row, col, 0, cells);
-                    if (getNumCellsRemaining() - getNumMinesDeployed() == 0){
-                        timer.stopCounting();
-                        placeFlags();
-                        gameWon = true;
-                        StdOut.println("CONGRATULATIONS YOU WIN!!!! Click anywhere to view the leadboard!"); 
+                    if (field.coastIsClear(row, col) && !field.isMine(row, col)){
+                        if (board != null && board.openingSize(row, col) >= BACKGROUND_REVEAL_CELLS){
+                            uncoverInBackground(row, col);
+                            return;
+                        }
+                        uncoverNeighboringBlanks(row, col);
                     }
+                    checkForWin();
                 }
             }
         }
         else{
-            if (!cells[row][col].isRevealed()){
-                if(!cells[row][col].isFlag())
-                    cells[row][col].makeFlag();
+            if (!field.isRevealed(row, col)){
+                if(!field.isFlag(row, col))
+                    field.makeFlag(row, col);
                 else
-                    cells[row][col].removeFlag();                                              }
+                    field.removeFlag(row, col);
+                checkCounters();
+            }
         }
   
     }
     
+    // The player set off the mine at (row, col).
+    private void lose(int row, int col) {
+        gameLost = true;
+        revealAllMines();
+        field.blownUp(row, col);
+        timer.stopCounting();
+        StdOut.println("BOOOOOM! You Lost! Click anywhere to view leadboard!");
+    }
+
+    /**
+     * Chord a revealed number: if the flags around it match its number,
+     * reveal all of its other hidden neighbors. They go to the minefield as
+     * one batch, which reveals them and any openings they start and updates
+     * the counters in one go, and then the game checks for a loss or a win
+     * once and repaints once, however many cells opened.
+     */
+    public void chord(int row, int col) {
+        if (!field.isRevealed(row, col) || field.isMine(row, col))
+            return;
+        int number = field.getNeighborMineCount(row, col);
+        if (number == 0)
+            return;
+        int flags = 0;
+        chordBatch.clear();
+        for (int dr = -1; dr <= 1; dr++)
+            for (int dc = -1; dc <= 1; dc++) {
+                int r = row + dr, c = col + dc;
+                if ((dr == 0 && dc == 0) || !field.inBounds(r, c))
+                    continue;
+                if (field.isFlag(r, c))
+                    flags++;
+                else if (!field.isRevealed(r, c))
+                    chordBatch.add(r, c);
+            }
+        if (flags != number || chordBatch.size() == 0)
+            return;
+        field.reveal(chordBatch);
+        if (chordBatch.hitMine())
+            lose(chordBatch.getMineRow(), chordBatch.getMineCol());
+        else
+            checkForWin();
+        refresh();
+    }
+
     /**
          * Respond to key presses. This function will be called each time the user
          * presses a key. The parameter indicates the character the user pressed.
@@ -430,13 +703,15 @@ public class Game extends Window implements EventListener {
     public void keyTyped(char c)
     {
         // User pressed a key, see what they want to do.
+        if (revealing && c != 'q' && c != 'Q')
+            return; // the board is busy, see mouseClicked()
         if (Secret) {
-            if (spawned < 101)
+            if (!monsters.isFull())
                 if(turns%8 == 0 && turns != 0){
-                    spawn(evil, PlayerLocation[0], PlayerLocation[1], turns, spawned);
-                    spawned++;
+                    spawn(monsters, PlayerLocation[0], PlayerLocation[1], board.getRows(), board.getCols());
+                    board.monsterSpawned();
                 }
-            cells[PlayerLocation[0]][PlayerLocation[1]].removePlayer();
+            board.removePlayer();
             int didMove = turns;
           
             if(!gameWon && !gameLost)
@@ -470,27 +745,27 @@ public class Game extends Window implements EventListener {
                  }
                 break;
             case 'S':
-                if(PlayerLocation[0] < NUM_ROWS - 2 && boostMeter > 1){
+                if(PlayerLocation[0] < board.getRows() - 2 && boostMeter > 1){
                     PlayerLocation[0] += 2;                
                     turns++;
                     boostMeter += -2;
                 }
                 break;
             case 's':
-                 if(PlayerLocation[0] < NUM_ROWS - 1){
+                 if(PlayerLocation[0] < board.getRows() - 1){
                 PlayerLocation[0] += 1;
                 turns++;
                  }
                 break;
             case 'D':
-                 if(PlayerLocation[1] < NUM_COLS - 2 && boostMeter > 1){
+                 if(PlayerLocation[1] < board.getCols() - 2 && boostMeter > 1){
                     PlayerLocation[1] += 2;                
                     turns++;
                     boostMeter += -2;
                 }
                 break;
             case 'd':
-                if(PlayerLocation[1] < NUM_COLS - 1){
+                if(PlayerLocation[1] < board.getCols() - 1){
                     PlayerLocation[1] += 1;                
                     turns++;
                 }
@@ -519,164 +794,54 @@ public class Game extends Window implements EventListener {
             
     
                 
-            cells[PlayerLocation[0]][PlayerLocation[1]].placePlayer();
+            board.placePlayer(PlayerLocation[0], PlayerLocation[1]);
+            followPlayer();
        
             if (didMove != turns){
                 if(turns%2 == 0 && boostMeter < 8)
                     boostMeter++;
-                //need number spawned as a variab
-                if(spawned == 0){
-                    evil[0] = new Monster(0, 0);
-                    spawned++;
+                if(monsters.getNumSpawned() == 0){
+                    monsters.spawn(0, 0);
+                    board.monsterSpawned();
                 }
                 boolean MineBoom = false;
            
-                for (int i = 0; i < spawned; i++){
-                    int deadCount = 0;
-                    if(evil[i].isAlive()){
-                        int M_row = evil[i].MonsterLocation_row();//these declarations were made to make the code more readable
-                        int M_col = evil[i].MonsterLocation_col();//
-                        int B_row = evil[i].BulletLocation_row();//
-                        int B_col = evil[i].BulletLocation_col();//
-                                
-                        cells[M_row][M_col].decreaseMonsterCount();//removes this monster from current location
-                        
-                        if (evil[i].BulletOut()){
-                            cells[B_row][B_col].removeBullet();//removes this monster's bullet from current location
-                            if(!((evil[i].BulletLocation_col_past() == -1 || evil[i].BulletLocation_row_past() == -1) || (B_row > NUM_ROWS ) || (B_col > NUM_COLS) || (B_row < 0) || (B_col < 0))) {
-                                int colDifference = evil[i].BulletLocation_col_past() - B_col;
-                                int rowDifference = evil[i].BulletLocation_row_past() - B_row;
-                                if (colDifference != 0) {
-                                    int multiplier = Math.abs(colDifference) / colDifference;
-                                    for (int trail = multiplier; trail != colDifference + multiplier; trail = trail + multiplier) {
-                                        cells[B_row][trail + B_col].shotNotTrailing();
-                                    }
-                                }
-                                else {
-                                    int multiplier = Math.abs(rowDifference) / rowDifference;
-                                    for (int trail = multiplier; trail != rowDifference + multiplier; trail = trail + multiplier) {
-                                        cells[trail + B_row][B_col].shotNotTrailing();
-                                    }
-                                }
-                            }
-                        }
-                        
-                        evil[i].TakeTurn(PlayerLocation[0],PlayerLocation[1]);//takes Monster's turn, see Monster Class
-                        
-                        M_row = evil[i].MonsterLocation_row();//these need to be redefined after the TakeTurn Method
-                        M_col = evil[i].MonsterLocation_col();//
-                        B_row = evil[i].BulletLocation_row();//
-                        B_col = evil[i].BulletLocation_col();//
-                        int B_row_past = evil[i].BulletLocation_row_past();//
-                        int B_col_past = evil[i].BulletLocation_col_past();//
-                            
-                        
-                        if (evil[i].BulletOut()){
-                            if(!((B_col_past == -1 || B_row_past == -1) || (B_row > NUM_ROWS ) || (B_col > NUM_COLS) || (B_row < 0) || (B_col < 0))) {
-                            int colDifference = B_col_past - B_col;
-                            int rowDifference = B_row_past - B_row;
-                            if (colDifference != 0) {
-                                int multiplier = Math.abs(colDifference) / colDifference;
-                                for (int trail = multiplier; trail != colDifference + multiplier; trail = trail + multiplier) {
-                                    cells[B_row][trail + B_col].shotIsTrailing();
-                                    StdOut.println("A " + B_row + " " + (trail + B_col) + " " + B_col + " " + trail);
-                                    StdOut.println("B " + B_row + " " + B_col + " " + B_row_past + " " + B_col_past);
-                                }
-                            }
-                            else {
-                                int multiplier = Math.abs(rowDifference) / rowDifference;
-                                for (int trail = multiplier; trail != rowDifference + multiplier; trail = trail + multiplier) {
-                                    cells[trail + B_row][B_col].shotIsTrailing();
-                                    StdOut.println("A " + (trail + B_row) + " " + B_col + " " + trail);
-                                    StdOut.println("B " + B_row + " " + B_col + " " + B_row_past + " " + B_col_past);
-                                }
-                            }
-                        }
-                            cells[B_row][B_col].placeBullet();//Places Bullet in it's new location after taking a turn
-                        }
-                        
-                        cells[M_row][M_col].incrementMonsterCount();//Places this Monster in it's new location after taking it's turn
-                        if(B_row_past != -1 && B_col_past != -1){
-                            if(evil[i].BulletOut())
-                            if(cells[B_row][B_col] == cells[PlayerLocation[0]][PlayerLocation[1]]){
-                                gameLost = true;
-                                revealAllMines();
-                                timer.stopCounting();
-                                StdOut.println("You were shot! You Lost! Click anywhere to view leadboard!");
-                                
-                            }
-                            int moving = 1;
-                            int Direction = evil[i].getBulletDirection();
-                            //StdOut.println(Direction);
-                            if ((Direction + 2)%2 == 0)
-                                moving = -1;
-                            for(int j = 1; j <= 3; j++){
-                                if (Direction > 1){
-                                    if(B_col_past + j*moving >= 0 && B_col_past + j*moving < 30){
-           
-                                        if(cells[B_row_past][B_col_past + j * moving] == cells[PlayerLocation[0]][PlayerLocation[1]]){
-                                            gameLost = true;
-                                            revealAllMines();
-                                            timer.stopCounting();
-                                            StdOut.println("You were shot! You Lost! Click anywhere to view leadboard!");
-                                        }
-                                    }
-                                   
-
-                                }
-                         
-                                else{
-                                    if(B_row_past + j * moving >= 0 && B_row_past + j*moving < 20 && B_col_past > 0){
-                                        if(cells[B_row_past + j * moving][B_col_past] == cells[PlayerLocation[0]][PlayerLocation[1]]){
-
-                                            if(cells[B_row_past + j*moving][B_col_past] == cells[PlayerLocation[0]][PlayerLocation[1]]){
-                                                //StdOut.println(B_row_past + " " + B_col_past);
-                                                //StdOut.println("row");
-                                                gameLost = true;
-                                                revealAllMines();
-                                                timer.stopCounting();
-                                                StdOut.println("You were shot! You Lost! Click anywhere to view leadboard!");
-                                            }
-                                        
-
-                                    }
-                                
-                            
-                            }
-                          }
-                        }
-                      }
-                    
-                     
-                   
-                        if(cells[M_row][M_col] == cells[PlayerLocation[0]][PlayerLocation[1]]){
-                      
-                            cells[M_row][M_col].reveal();
-                            
-                            if(cells[PlayerLocation[0]][PlayerLocation[1]].isMine() && !cells[PlayerLocation[0]][PlayerLocation[1]].MineWasUsed()){
-                                evil[i].killMonster();
-                                DeadMonsters++;
-                                MineBoom = true;
-                                cells[M_row][M_col].decreaseMonsterCount();
-                                
-                            }  else{
-                             
-                                gameLost = true;
-                                            revealAllMines();
-                                            timer.stopCounting();
-                                            StdOut.println("You were mauled by a Monster! You Lost! Click anywhere to view leadboard!");
-
-                            }
-                            
-                        }
+                // Bullets fly first, drawing their trails, so one fired this
+                // turn stays by the monster that fired it until the next.
+                board.clearShotTrails();
+                int shots = bullets.update(board, PlayerLocation[0], PlayerLocation[1]);
+
+                flow.update(board, PlayerLocation[0], PlayerLocation[1]);//one search finds the way to the player for every monster
+                monsters.takeTurns(PlayerLocation[0], PlayerLocation[1], flow);//takes every Monster's turn, see MonsterPool
+
+                // Whatever passed through or ended up on the player's cell has run into them.
+                int P_row = PlayerLocation[0], P_col = PlayerLocation[1];
+                if (shots > 0 || occupancy.find(P_row, P_col, OccupancyGrid.BULLET) != -1){
+                    gameLost = true;
+                    revealAllMines();
+                    timer.stopCounting();
+                    StdOut.println("You were shot! You Lost! Click anywhere to view leadboard!");
+                }
+                for (int m = occupancy.find(P_row, P_col, OccupancyGrid.MONSTER); m != -1;
+                     m = occupancy.find(P_row, P_col, OccupancyGrid.MONSTER)){
+                    board.reveal(P_row, P_col);
+                    if(board.isMine(P_row, P_col) && !board.mineWasUsed(P_row, P_col)){
+                        monsters.kill(m);
+                        MineBoom = true;
+                        board.monsterKilled();
+                    }  else{
+                        gameLost = true;
+                        revealAllMines();
+                        timer.stopCounting();
+                        StdOut.println("You were mauled by a Monster! You Lost! Click anywhere to view leadboard!");
+                        break;
                     }
                 }
                 
-                    
-                
                 if (MineBoom){
-                    cells[PlayerLocation[0]][PlayerLocation[1]].MineUsed();
-                    if(DeadMonsters == 101){
+                    board.mineUsed(PlayerLocation[0], PlayerLocation[1]);
+                    flow.invalidate();//the used mine is in the monsters' way now
+                    if(getNumDeadMonsters() == monsters.getCap()){
                         timer.stopCounting();
                         placeFlags();
                         gameWon = true;
@@ -685,12 +850,18 @@ public class Game extends Window implements EventListener {
                 }
             
             }
+            checkCounters();
         }  else {  
             switch (c) {
             case 'q': 
             case 'Q': 
+                hints.shutdown();
                 hide(); // user wants to quit
                 break;
+            case 'h':
+            case 'H':
+                requestHint();
+                break;
             default:
                 break; // anything else is ignored
             }
@@ -700,9 +871,33 @@ public class Game extends Window implements EventListener {
     
     
 
+    /**
+     * Respond to special keys. The arrow keys scroll the view around boards
+     * that are too big to fit on the screen.
+     * @param keyText the name of the key that was typed.
+     */
+    public void specialKeyTyped(String keyText) {
+        int step = 5;
+        if (keyText.equals("Up"))
+            scrollTo(viewRow - step, viewCol);
+        else if (keyText.equals("Down"))
+            scrollTo(viewRow + step, viewCol);
+        else if (keyText.equals("Left"))
+            scrollTo(viewRow, viewCol - step);
+        else if (keyText.equals("Right"))
+            scrollTo(viewRow, viewCol + step);
+    }
+
     public int getScore(){
         return timer.getElapsedSeconds();
 }
+
+    /**
+     * Get the metrics of the board's layout, or null on an endless board.
+     */
+    public BoardMetrics getBoardMetrics() {
+        return board == null ? null : board.getMetrics();
+    }
     
     /**
      * Paint the background for this window on the canvas. Don't call this
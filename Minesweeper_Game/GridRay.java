@@ -0,0 +1,174 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  GridRay walks a straight line through the cells of the board,
+ *  one cell at a time, so a fast bullet can be checked against
+ *  every cell it passes over.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>GridRay</i> walks the cells a straight line passes through, from the
+ * middle of one cell to the middle of another, in order. It is a DDA: the
+ * ray keeps track of when it next crosses a row line and when it next
+ * crosses a column line, and steps into the next row or column, whichever
+ * comes first. When both come at once the line goes through a corner, and
+ * the ray steps diagonally. The line can be any length and go in any
+ * direction, and it is all done with whole numbers, so two rays over the
+ * same cells always agree.
+ *
+ * One GridRay is reused for every line: call start(), then next() until it
+ * returns false, reading the cell with getRow() and getCol() after each
+ * step. The start cell itself is not visited. A ray stops early if it would
+ * leave the board, and leftBoard() then says so.
+ */
+public class GridRay {
+
+    private final int rows, cols;
+
+    // The cell the ray is on, the cell it ends on, and which way it goes.
+    private int row, col, endRow, endCol, stepRow, stepCol;
+
+    // How far the line goes across rows and columns, and when it next
+    // crosses a row line and a column line. The times are scaled by twice
+    // the product of the two distances, so they are whole numbers.
+    private long spanRow, spanCol, nextRow, nextCol;
+
+    private boolean done, leftBoard;
+
+    /**
+     * Make a ray for a rows by cols board.
+     */
+    public GridRay(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Start the ray on (r0, c0), heading for (r1, c1). The start cell must
+     * be on the board; the end cell need not be.
+     */
+    public void start(int r0, int c0, int r1, int c1) {
+        row = r0;
+        col = c0;
+        endRow = r1;
+        endCol = c1;
+        stepRow = Integer.signum(r1 - r0);
+        stepCol = Integer.signum(c1 - c0);
+        spanRow = Math.abs(r1 - r0);
+        spanCol = Math.abs(c1 - c0);
+
+        // The k'th row line is crossed at (2k + 1) / (2 * spanRow) of the
+        // way along, and the k'th column line at (2k + 1) / (2 * spanCol).
+        nextRow = spanCol;
+        nextCol = spanRow;
+        done = r0 == r1 && c0 == c1;
+        leftBoard = false;
+    }
+
+    /**
+     * Step to the next cell the line passes through. Returns false, without
+     * moving, once the ray has reached its end or would leave the board.
+     */
+    public boolean next() {
+        if (done)
+            return false;
+        int r = row, c = col;
+        long crossRow = nextRow, crossCol = nextCol;
+        if (crossRow <= crossCol) {
+            r += stepRow;
+            nextRow += 2 * spanCol;
+        }
+        if (crossCol <= crossRow) {
+            c += stepCol;
+            nextCol += 2 * spanRow;
+        }
+        if (r < 0 || r >= rows || c < 0 || c >= cols) {
+            done = leftBoard = true;
+            return false;
+        }
+        row = r;
+        col = c;
+        done = r == endRow && c == endCol;
+        return true;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Whether the ray stopped because its next cell was off the board.
+     */
+    public boolean leftBoard() {
+        return leftBoard;
+    }
+
+    /**
+     * A main() function, for testing. It walks many random lines and checks
+     * that each step moves to a neighboring cell, that every cell visited
+     * touches the line, that the ray ends where it should, and that it stops
+     * at the edge of the board. Then it times a million short rays.
+     */
+    public static void main(String args[]) {
+        int size = 50;
+        GridRay ray = new GridRay(size, size);
+        java.util.Random random = new java.util.Random(1);
+        for (int k = 0; k < 100000; k++) {
+            int r0 = random.nextInt(size), c0 = random.nextInt(size);
+            int r1 = r0 + random.nextInt(41) - 20, c1 = c0 + random.nextInt(41) - 20;
+            int dr = r1 - r0, dc = c1 - c0, r = r0, c = c0;
+            ray.start(r0, c0, r1, c1);
+            while (ray.next()) {
+                int nr = ray.getRow(), nc = ray.getCol();
+                if (Math.abs(nr - r) > 1 || Math.abs(nc - c) > 1 || (nr == r && nc == c))
+                    throw new IllegalStateException("the ray jumped from " + r + " " + c + " to " + nr + " " + nc);
+                r = nr;
+                c = nc;
+
+                // The line touches a cell if the cell's middle is no further
+                // from it than the cell's half-width along the line's normal.
+                long cross = (long)(r - r0) * dc - (long)(c - c0) * dr;
+                if (2 * Math.abs(cross) > Math.abs(dr) + Math.abs(dc))
+                    throw new IllegalStateException("the ray from " + r0 + " " + c0 + " to " + r1 + " " + c1
+                                                    + " strayed onto " + r + " " + c);
+            }
+            boolean onBoard = r1 >= 0 && r1 < size && c1 >= 0 && c1 < size;
+            if (onBoard && (r != r1 || c != c1 || ray.leftBoard()))
+                throw new IllegalStateException("the ray from " + r0 + " " + c0 + " did not reach " + r1 + " " + c1);
+            if (!onBoard && !ray.leftBoard())
+                throw new IllegalStateException("the ray from " + r0 + " " + c0 + " to " + r1 + " " + c1
+                                                + " did not leave the board");
+        }
+        StdOut.println("Rays step cell by cell along their lines and stop at the edge");
+
+        int n = 1000000, cells = 0;
+        long best = Long.MAX_VALUE;
+        size = 1000;
+        ray = new GridRay(size, size);
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int k = 0; k < n; k++) {
+                int r0 = (int)(k * 7919L % size), c0 = (int)(k * 104729L % size);
+                ray.start(r0, c0, r0 + (k % 7) - 3, c0 + (k % 5) - 2);
+                while (ray.next())
+                    cells++;
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        StdOut.printf("Walking %d short rays takes %.2f ms (%d cells)\n", n, best / 1e6, cells);
+    }
+}
@@ -24,6 +24,9 @@ public class HelpBox extends Widget {
      */
     public static final int HEIGHT = 75;
 
+    // The line about the hint, or null if there is none.
+    private String hint;
+
     /**
      * Initialize a new HelpBox object. It will be drawn at the specified
      * position.
@@ -34,6 +37,14 @@ public class HelpBox extends Widget {
         super(x, y, WIDTH, HEIGHT);
     }
 
+    /**
+     * Show a line about the hint in place of the hint key help, or pass null
+     * to go back to it.
+     */
+    public void setHint(String text) {
+        hint = text;
+    }
+
     /**
      * Paint the help box on a canvas. Don't call this directly, it is called by
      * the GUI system automatically. This function should draw something on the
@@ -50,10 +61,12 @@ public class HelpBox extends Widget {
         canvas.setPenRadius(1.0);
         canvas.rectangle(x+0.5, y+0.5, width-1, height-1);
 
-        // Draw some help text.
-        canvas.setFont(Canvas.DEFAULT_FONT);
-        canvas.textLeft(x + 15, y + 15, "Q - Quit");
-        canvas.textLeft(x + 15, y + 37.5, "Left button - Reveal");
+        // Draw some help text, and the hint if there is one.
+        canvas.setFont("SansSerif", 14);
+        canvas.textLeft(x + 15, y + 12, "Q - Quit");
+        canvas.textLeft(x + 15, y + 29, "L - Reveal, M - Chord");
+        canvas.textLeft(x + 15, y + 46, "Arrow keys - Scroll");
+        canvas.textLeft(x + 15, y + 63, hint != null ? hint : "H - Hint");
     }
 
 }
@@ -0,0 +1,183 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  HintEngine works out hints on a background thread, so the game
+ *  never waits for one.
+ *----------------------------------------------------------------*/
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A <i>HintEngine</i> finds a cell for the player to reveal next: one the
+ * Solver proves safe if there is one, or failing that the one the
+ * ProbabilityEngine finds least likely to be a mine. If the board is too
+ * tangled for the ProbabilityEngine to finish in half the time allowed, the
+ * chances are estimated by a MonteCarloEstimator in the other half instead.
+ *
+ * Hints are worked out on a single worker thread, from a Snapshot, and handed
+ * back through a callback on that thread. The snapshot is taken by whoever
+ * asks, on the thread that changes the board, so the worker never reads a
+ * board that is being changed. Only the newest request counts: asking
+ * again, or calling cancel() when the board changes, stops the one in
+ * progress and makes sure its answer is never delivered. The last answer is
+ * kept with the snapshot it came from, so asking again about an unchanged
+ * board answers straight away.
+ *
+ * Every pass of a hint (the Solver, the ProbabilityEngine, the estimator and
+ * the search for the safest cell) stops at the deadline BUDGET_NANOS after it
+ * starts. The first time the Solver and the engines see a size of board they
+ * also fill in arrays with an entry per cell, which the deadline cannot cut
+ * short. On a 5000 x 5000 board here the first hint or two take up to 0.7 s,
+ * and later ones about 0.3 s.
+ */
+public class HintEngine {
+
+    /**
+     * The most time to spend on one hint once its snapshot is taken.
+     */
+    public static final long BUDGET_NANOS = 250_000_000L;
+
+    /**
+     * A hint: the cell to reveal, its chance of being a mine (0 if it is
+     * proved safe), and how long it took to work out.
+     */
+    public static class Hint {
+        public final int row, col;
+        public final double probability;
+        public final long nanos;
+        public final boolean cached;
+
+        Hint(int row, int col, double probability, long nanos, boolean cached) {
+            this.row = row;
+            this.col = col;
+            this.probability = probability;
+            this.nanos = nanos;
+            this.cached = cached;
+        }
+
+        public boolean isSafe() {
+            return probability == 0.0;
+        }
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "hint-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+    // Only used on the worker thread.
+    private final Solver solver = new Solver();
+    private final ProbabilityEngine engine = new ProbabilityEngine();
+    private final MonteCarloEstimator sampler = new MonteCarloEstimator();
+
+    // The request that still counts. Older ones check it before answering.
+    private volatile int generation;
+    private Future<?> pending;
+
+    // The last hint, and the board it was for.
+    private volatile Snapshot cachedSnap;
+    private volatile Hint cachedHint;
+
+    /**
+     * Ask for a hint about the given snapshot, which must not be changed
+     * afterwards. The answer is passed to done, on the worker thread, unless
+     * another request or a cancel() comes first. There is no answer if the
+     * snapshot has no hidden cells left.
+     */
+    public synchronized void request(Snapshot snap, Consumer<Hint> done) {
+        cancel();
+        int mine = generation;
+        pending = worker.submit(() -> answer(snap, mine, done));
+    }
+
+    // Answer a request on the worker thread, from the cache if the board is
+    // the same as last time.
+    private void answer(Snapshot snap, int mine, Consumer<Hint> done) {
+        Hint hint = cachedHint;
+        if (hint != null && snap.sameAs(cachedSnap)) {
+            if (generation == mine)
+                done.accept(new Hint(hint.row, hint.col, hint.probability, hint.nanos, true));
+            return;
+        }
+        Hint found = compute(snap, mine);
+        if (found != null && generation == mine) {
+            cachedSnap = snap;
+            cachedHint = found;
+            done.accept(found);
+        }
+    }
+
+    /**
+     * Stop the hint being worked out, if any, and make sure it is never
+     * delivered. Call it whenever the board changes.
+     */
+    public synchronized void cancel() {
+        generation++;
+        if (pending != null && !pending.isDone()) {
+            pending.cancel(false);
+            engine.cancel();
+            sampler.cancel();
+        }
+        pending = null;
+    }
+
+    /**
+     * Stop the worker thread. The engine cannot be used after this.
+     */
+    public void shutdown() {
+        cancel();
+        worker.shutdownNow();
+    }
+
+    // Work out a hint on the worker thread. Returns null if there is no
+    // hidden cell, or the request was cancelled part way through.
+    private Hint compute(Snapshot snap, int mine) {
+        long start = System.nanoTime(), deadline = start + BUDGET_NANOS;
+        int rows = snap.getRows(), cols = snap.getCols();
+        solver.solve(snap, deadline);
+        if (solver.getNumSafe() > 0) {
+            int cell = solver.getSafe(0);
+            return new Hint(cell / cols, cell % cols, 0.0, System.nanoTime() - start, false);
+        }
+        if (generation != mine)
+            return null;
+
+        // The engine gets half of what is left, and the estimator the rest if
+        // the engine cannot finish. The estimator's chances are only used if
+        // it sampled something, or found nothing to sample; if it ran out of
+        // time first they are all the same, and the engine's partial answer
+        // ranks cells better. If the solver used up the budget, which a first
+        // hint on a big board can, every cell it did not prove a mine is
+        // taken to be as likely as the rest.
+        double flat = -1.0;
+        boolean sampled = false;
+        if (System.nanoTime() > deadline)
+            flat = (double)(snap.getMines() - snap.getShownMines() - solver.getNumMines())
+                / Math.max(1, snap.getHidden() - solver.getNumMines());
+        else if (!engine.compute(snap, (deadline - System.nanoTime()) / 2)
+                 && generation == mine && System.nanoTime() <= deadline)
+            sampled = sampler.estimate(snap, deadline - System.nanoTime()) || sampler.isSampled();
+
+        // The safest cell, or the safest found by the deadline.
+        int pick = -1;
+        double lowest = 2.0;
+        for (int r = 0; r < rows && (pick < 0 || System.nanoTime() <= deadline); r++)
+            for (int c = 0; c < cols; c++) {
+                double p = flat >= 0 ? (solver.isMine(r, c) ? 1.0 : flat)
+                    : sampled ? sampler.getProbability(r, c) : engine.getProbability(r, c);
+                if (snap.get(r, c) == Snapshot.HIDDEN && p < lowest) {
+                    lowest = p;
+                    pick = r * cols + c;
+                }
+            }
+        if (pick < 0 || generation != mine)
+            return null;
+        return new Hint(pick / cols, pick % cols, lowest, System.nanoTime() - start, false);
+    }
+}
@@ -0,0 +1,69 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  IntStack is a growable stack of plain ints.
+ *----------------------------------------------------------------*/
+
+/**
+ * An <i>IntStack</i> is a last-in first-out stack of ints, kept in a plain
+ * int[] that doubles in size when it fills up. Unlike a java.util stack of
+ * Integers it never boxes, so it can hold millions of entries cheaply, and it
+ * can be cleared and reused without giving back its memory.
+ */
+public class IntStack {
+
+    private int[] items;
+    private int size;
+
+    /**
+     * Create an empty stack with room for a few items.
+     */
+    public IntStack() {
+        this(64);
+    }
+
+    /**
+     * Create an empty stack with room for the given number of items.
+     */
+    public IntStack(int capacity) {
+        items = new int[Math.max(1, capacity)];
+        size = 0;
+    }
+
+    public void push(int value) {
+        if (size == items.length)
+            items = java.util.Arrays.copyOf(items, 2 * size);
+        items[size++] = value;
+    }
+
+    /**
+     * Remove and return the top item. The stack must not be empty.
+     */
+    public int pop() {
+        return items[--size];
+    }
+
+    /**
+     * Get the k'th item from the bottom, without removing it.
+     */
+    public int get(int k) {
+        return items[k];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every item, but keep the memory for later pushes.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -69,8 +69,11 @@ public class LeaderBoardBoxes extends Widget {
                     
                 canvas.filledRectangle(x + 6, y + 80 - 15 + 30 * i, WIDTH2-2, 30);
             }
+            // Scores on measured boards are ranked by 3BV per second, so show that instead of the time.
+            BoardMetrics metrics = a.getMetrics(i+1);
+            String shown = metrics == null ? "" + score : String.format("%.2f", metrics.get3BVPerSecond(score));
             canvas.setPenColor(canvas.WHITE);
-            canvas.textLeft(x+5 + 10, y + 80 + 30 * i, (i + 1) + ". " + Name + " " + score);           
+            canvas.textLeft(x+5 + 10, y + 80 + 30 * i, (i + 1) + ". " + Name + " " + shown);           
         }
     }
     public void repaint(GUI.Canvas canvas) {
@@ -45,6 +45,7 @@ public class Leaderboard extends Window {
 
     String Difficulty, Username;
     int Score;
+    BoardMetrics Metrics; // of the board the score was set on, or null
     // TODO: Add member variables here as needed, e.g. for the head of the
     // linked list or for an array or several arrays. You can keep separate
     // lists for each difficulty level, "easy", "medium", and "hard". Or you
@@ -69,9 +70,20 @@ public class Leaderboard extends Window {
         add(a);
          }
 
+    /**
+     * Initialize a new leaderboard for a score set on a board with the given
+     * metrics, so it can be ranked by 3BV per second.
+     */
+    public Leaderboard(String mode, String name, int score, BoardMetrics metrics) {
+        this(mode, name, score);
+        Metrics = metrics;
+    }
+
 
         /**
-     * Load top scores from leaderboard.dat
+     * Load top scores from leaderboard.dat. Each line is the difficulty, the
+     * score, and the name, with the board's 3BV, openings and isolated numbers
+     * between the score and the name as "3bv=N,N,N" if it was measured.
      */
     public void load() {
         In input = new In("leaderboard.dat");
@@ -87,8 +99,14 @@ public class Leaderboard extends Window {
             String difficulty = parts[0];
             int score = Integer.parseInt(parts[1]);
             String name = parts[2];
+            BoardMetrics metrics = null;
+            if (name.startsWith("3bv=") && name.indexOf(' ') > 0) {
+                String[] counts = name.substring(4, name.indexOf(' ')).split(",");
+                metrics = new BoardMetrics(Integer.parseInt(counts[1]), Integer.parseInt(counts[2]));
+                name = name.substring(name.indexOf(' ') + 1);
+            }
             //StdOut.printf("%s %d %s\n", difficulty, score, name);
-            insert(difficulty, name, score);
+            insert(difficulty, name, score, metrics, false);
             
         }
     }
@@ -105,11 +123,16 @@ public class Leaderboard extends Window {
             for (int i = 0; i < n && i < 10; i++) {//that && is a safety because my LinkedList fails at cutting off tied values from the list
                 int score = getPlayerScore(level, i+1);                
                 String name = getPlayerName(level, i+1);
+                BoardMetrics metrics = getPlayerMetrics(level, i+1);
                 // Ignore anything that is blank. Should not
                 // happen, but just in case...
                 //StdOut.printf("%s %d %s\n", level, score, name);
                 if (score >= 0 && name != null && name.length() > 0) {
-                    out.printf("%s %d %s\n", level, score, name);
+                    if (metrics != null)
+                        out.printf("%s %d 3bv=%d,%d,%d %s\n", level, score, metrics.get3BV(),
+                                   metrics.getOpenings(), metrics.getIsolatedNumbers(), name);
+                    else
+                        out.printf("%s %d %s\n", level, score, name);
                 }
             }
         }
@@ -162,6 +185,25 @@ public class Leaderboard extends Window {
         return; 
     }
 
+    /**
+     * Insert a score set on a board with the given metrics, which may be null
+     * if the board was not measured. Measured scores are ranked by 3BV per
+     * second rather than by time; see Node.ranksAbove().
+     */
+    public void insert(String difficulty, String name, int score, BoardMetrics metrics, boolean Recent) {
+        if (difficulty.equals("easy"))
+            Easy.insertOrdered(score, name, metrics, Recent);
+        
+        else if (difficulty.equals("medium"))
+            Medium.insertOrdered(score, name, metrics, Recent);
+        
+        else if (difficulty.equals("hard"))
+            Hard.insertOrdered(score, name, metrics, Recent);
+        
+        else 
+            Secret.insertOrdered(score, name, metrics, Recent);
+    }
+
     /**
      * Get the number of player scores in the list.
      * @param difficulty the difficulty level
@@ -247,6 +289,21 @@ public class Leaderboard extends Window {
       
     }
 
+    /**
+     * Get the metrics of the board the i^th score in the list was set on, or
+     * null if it was not measured.
+     */
+    public BoardMetrics getPlayerMetrics(String difficulty, int i) {
+        if (difficulty.equals("easy"))
+            return Easy.getMetrics(i);
+        else if (difficulty.equals("medium"))
+            return Medium.getMetrics(i);
+        else if (difficulty.equals("hard"))
+            return Hard.getMetrics(i);
+        else 
+            return Secret.getMetrics(i);
+    }
+
     /* //This currently does not work because I chose to go with a graphical leaderboard
     // Print all of the top scores to the console, with a nice header.
     public void print() 
@@ -300,9 +357,9 @@ public class Leaderboard extends Window {
      * A main() function, for testing.
      */
     public static void main(String args[]) {
-        Leaderboard b = new Leaderboard("medium", "test", 1997);
+        Leaderboard b = new Leaderboard("medium", "test", 1997, new BoardMetrics(3, 40));
         b.load();
-        b.insert(b.Difficulty, b.Username, b.Score, true);
+        b.insert(b.Difficulty, b.Username, b.Score, b.Metrics, true);
         b.save();
         b.showAndAnimate(4);
     }
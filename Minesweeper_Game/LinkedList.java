@@ -87,40 +87,27 @@ public class LinkedList {
     } // end of insertRear
 
     public void insertOrdered(int newVal, String name) {
-    
-         Node curr = head;
-        if (head == null){//adds to the front of the list if empty
-            insertFront(newVal, name);
-            return;
-        }
-       
-        if (newVal < curr.val){//adds to the Front if lowest value
-            insertFront(newVal, name);
+        insertOrdered(new Node(newVal, name));
+    } //insertOrdered
+
+    public void insertOrdered(int newVal, String name, BoardMetrics metrics, boolean Recent) {
+        insertOrdered(new Node(newVal, name, metrics, Recent));
+    } //insertOrdered
+
+    // Put a node in ranked order (see Node.ranksAbove), after any it ties with.
+    public void insertOrdered(Node item) {
+        if (head == null || item.ranksAbove(head)) {//adds to the front
+            item.next = head;
+            head = item;
             return;
         }
-        while(curr.next != null){
-            if (newVal >= curr.val && newVal < curr.next.val){//adds between
-                Node insert = new Node(newVal, name, curr.next);
-                curr.next = insert;
-                return;
-            }
-            curr = curr.next;
-            
-        }
-        curr.next = new Node(newVal, name);//adds to the end
-        //this next bit is to chop off anything after ten items for leaderboard.
-        curr = head;
-        for(int i = 0; i < 10; i++){
-            if (curr != null)
-                return;
+        Node curr = head;
+        while (curr.next != null && !item.ranksAbove(curr.next))
             curr = curr.next;
-        }
-        curr.next = null;
-        
-        return;
-        
-        
+        item.next = curr.next;//adds between, or to the end
+        curr.next = item;
     } //insertOrdered
+
     public int NumItems() {
         int i = 0;
         Node curr = head;
@@ -136,6 +123,12 @@ public class LinkedList {
         for(int i = 0; i < num - 1; i++)
             curr = curr.next;
         return curr.val;
+    }
+    public BoardMetrics getMetrics(int num){
+        Node curr = head;
+        for(int i = 0; i < num - 1; i++)
+            curr = curr.next;
+        return curr.metrics;
     }
      public String getName(int num){
         Node curr = head;
@@ -162,40 +155,7 @@ public class LinkedList {
 
 
     public void insertOrdered(int newVal, String name, boolean Recent) {
-    
-         Node curr = head;
-        if (head == null){//adds to the front of the list if empty
-            insertFront(newVal, name, Recent);
-            return;
-        }
-       
-        if (newVal < curr.val){//adds to the Front if lowest value
-            insertFront(newVal, name, Recent);
-            return;
-        }
-        while(curr.next != null){
-            if (newVal >= curr.val && newVal < curr.next.val){//adds between
-                Node insert = new Node(newVal, name, curr.next, Recent);
-                curr.next = insert;
-                
-                return;
-            }
-            curr = curr.next;
-            
-        }
-        curr.next = new Node(newVal, name, Recent);//adds to the end
-        //this next bit is to chop off anything after ten items for leaderboard.
-        curr = head;
-        for(int i = 0; i < 10; i++){
-            if (curr != null)
-                return;
-            curr = curr.next;
-        }
-        curr.next = null;
-        
-        return;
-        
-        
+        insertOrdered(new Node(newVal, name, Recent));
     } //insertOrdered
 
     public int SearchRecent(){
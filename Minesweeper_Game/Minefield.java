@@ -0,0 +1,86 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Minefield is what the game needs from a board of cells,
+ *  whether it is a fixed size Board or an endless one.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Minefield</i> is the state of a minesweeper grid, as seen by the game
+ * rules and by the Cell widgets that draw it. Board is the normal, fixed size
+ * minefield, and EndlessBoard goes on forever in every direction.
+ */
+public interface Minefield {
+
+    /**
+     * Returns true if the given row and column lie on the board.
+     */
+    public boolean inBounds(int row, int col);
+
+    public boolean isMine(int row, int col);
+
+    public int getNeighborMineCount(int row, int col);
+
+    /**
+     * Check whether there are no mines around a cell.
+     */
+    public boolean coastIsClear(int row, int col);
+
+    /**
+     * Reveal a cell. Returns true if it was hidden before.
+     */
+    public boolean reveal(int row, int col);
+
+    public boolean isRevealed(int row, int col);
+
+    /**
+     * Uncover the opening around a blank cell that has just been revealed,
+     * and return how many more cells got revealed.
+     */
+    public int uncoverNeighboringBlanks(int row, int col);
+
+    /**
+     * Reveal every cell of a batch that is hidden and has no flag, and
+     * uncover the opening around each blank one, as a single update. How
+     * many cells got revealed, and the first mine set off, are left in the
+     * batch. This does it one cell at a time. Board does it in bulk.
+     */
+    public default void reveal(RevealBatch batch) {
+        int count = 0;
+        for (int k = 0; k < batch.size(); k++) {
+            int row = batch.getRow(k), col = batch.getCol(k);
+            if (isRevealed(row, col) || isFlag(row, col) || !reveal(row, col))
+                continue;
+            count++;
+            if (isMine(row, col))
+                batch.mineHit(row, col);
+            else if (coastIsClear(row, col))
+                count += uncoverNeighboringBlanks(row, col);
+        }
+        batch.setRevealed(count);
+    }
+
+    public void makeFlag(int row, int col);
+
+    public void removeFlag(int row, int col);
+
+    public boolean isFlag(int row, int col);
+
+    /**
+     * Reveal every mine, or at least every one the player could be looking at.
+     */
+    public void revealAllMines();
+
+    /**
+     * Flag every mine, or at least every one the player could be looking at.
+     */
+    public void placeFlags();
+
+    public void blownUp(int row, int col);
+
+    public boolean isBlownUp(int row, int col);
+
+    public boolean mineWasUsed(int row, int col);
+}
@@ -12,6 +12,9 @@
  *
  *  Example: java Minesweeper 1234 # This repeats the game with seed 1234
  *
+ *  Example: java Minesweeper 1234 noguess # The same, on a board that
+ *           can be cleared without guessing
+ *
  *----------------------------------------------------------------*/
 
 public class Minesweeper {
@@ -20,7 +23,9 @@ public class Minesweeper {
     /**
      * The main() program for the minesweeper game. It takes one optional
      * parameter, an integer seed used for randomizing the mines. If you use the
-     * same seed twice, you should get the exact same deployment of mines.
+     * same seed twice, you should get the exact same deployment of mines. If
+     * "noguess" is also given, the mines are laid out so the board can be
+     * cleared by logic alone, starting from an opening in the middle.
      */
     public static void main(String args[]) {
 
@@ -32,14 +37,23 @@ public class Minesweeper {
         // provided as an optional command-line argument, or we print out the
         // seed being used so the user can play the exact same game again if
         // they like.
+        boolean noGuess = false;
+        String seedArg = null;
+        for (String arg : args) {
+            if (arg.equals("noguess"))
+                noGuess = true;
+            else
+                seedArg = arg;
+        }
         int seed;
-        if (args.length == 0) {
+        if (seedArg == null) {
             seed = StdRandom.uniform(1000, 9999);
             System.out.println("The seed for this game is: " + seed);
             System.out.println("If you wish to play this exact same game");
-            System.out.println("again, use this command: java Minesweeper " + seed); 
+            System.out.println("again, use this command: java Minesweeper " + seed
+                               + (noGuess ? " noguess" : "")); 
         } else {
-            seed = Integer.parseInt(args[0]);
+            seed = Integer.parseInt(seedArg);
             System.out.println("You are re-playing the game with seed: " + seed);
         }
 
@@ -58,20 +72,34 @@ public class Minesweeper {
         StdRandom.setSeed(seed);
 
         // Create a game, and deploy the correct number of mines.
-        Game game = new Game(username, selection);
+        int rows = t.getRows();
+        int cols = t.getCols();
+        Game game = new Game(username, selection, rows, cols);
 
         StdRandom.setSeed(seed);
 
+        int mines;
         if (selection.equals("hard"))
-            game.deployMines(100);
+            mines = scaleMines(100, rows, cols);
         else if (selection.equals("medium"))
-            game.deployMines(20);
+            mines = scaleMines(20, rows, cols);
         else if (selection.equals("easy"))
-            game.deployMines(5);
+            mines = scaleMines(5, rows, cols);
         else if (selection.equals("SecretGame"))
-            game.deployMines(101);
+            mines = scaleMines(101, rows, cols);
+        else if (selection.equals("endless"))
+            mines = 0; // the endless board makes its own mines as it goes
+        else
+            mines = scaleMines(StdRandom.uniform(5, 100), rows, cols);
+
+        // The secret game moves the player around the mines, and the endless
+        // board has no end to clear, so neither can be no-guess.
+        if (selection.equals("endless"))
+            ;
+        else if (noGuess && !selection.equals("SecretGame"))
+            game.deployNoGuessMines(mines);
         else
-            game.deployMines(StdRandom.uniform(5, 100));
+            game.deployMines(mines);
         
       
             
@@ -87,10 +115,15 @@ public class Minesweeper {
 
           if(game.gameLost() || game.gameWon()){
                  
-            Leaderboard a = new Leaderboard(selection, username, game.getScore());
+            // The secret game is won by killing monsters and the endless board
+            // has no end to clear, so neither is ranked by 3BV/s; their lists
+            // stay ranked by time alone.
+            BoardMetrics metrics = selection.equals("SecretGame") || selection.equals("endless")
+                ? null : game.getBoardMetrics();
+            Leaderboard a = new Leaderboard(selection, username, game.getScore(), metrics);
             a.load();
             if (game.gameWon()){
-                a.insert(a.Difficulty, a.Username, a.Score, true);
+                a.insert(a.Difficulty, a.Username, a.Score, a.Metrics, true);
                 a.save();
             }
             a.showAndAnimate(4);
@@ -98,4 +131,12 @@ public class Minesweeper {
         }
     }
 
+    /**
+     * The mine counts above are for the classic 20 x 30 board. This scales a
+     * count up so a bigger board has the same density of mines.
+     */
+    public static int scaleMines(int mines, int rows, int cols) {
+        return (int)((long)mines * rows * cols / (Game.VIEW_ROWS * Game.VIEW_COLS));
+    }
+
 }
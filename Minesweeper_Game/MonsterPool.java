@@ -0,0 +1,330 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  MonsterPool holds every monster of the secret game in plain
+ *  arrays, so a turn for a hundred thousand of them is quick.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>MonsterPool</i> holds the monsters of the secret game. Instead of one
+ * object per monster, each thing about a monster (its row, its column, and
+ * how long until it can fire again) is kept in an array of its own, and a
+ * monster is just an index into them. A turn runs down the arrays in order
+ * without chasing any pointers, so for 100,000 monsters on a 1000 x 1000
+ * board it takes about 0.6 ms here. Keeping an OccupancyGrid up to date
+ * as well brings it to 1.2 to 1.9 ms, as every monster is taken off its
+ * old cell and put on its new one, at scattered places in memory; main()
+ * times both.
+ *
+ * Only the living monsters are kept, in slots 0 to size() - 1. When a
+ * monster is killed the last one is moved into its slot, so the slots stay
+ * packed and a turn never has to skip over the dead. Because of that a
+ * monster's index can change when another is killed: when killing monsters
+ * in a loop, go from the last slot down to the first, so the monster moved
+ * into a slot is one that has already been handled.
+ *
+ * The pool holds at most getCap() monsters over the whole game. The secret
+ * game is won once that many have been killed.
+ *
+ * If the pool is given an OccupancyGrid it keeps it up to date as monsters
+ * move and die. The monster in slot i is entity i in the grid. If it is
+ * given a BulletPool, monsters far from the player fire bullets into it in
+ * one of its patterns, and then have to wait a few turns before they can
+ * fire again.
+ */
+public class MonsterPool {
+
+    /**
+     * The number of monsters in a secret game, 101 unless it is set with
+     * -Dminesweeper.monsters=N.
+     */
+    public static final int CAP = Integer.getInteger("minesweeper.monsters", 101);
+
+    // How far a monster must be from the player to fire, and how many
+    // turns it waits before it can fire again.
+    private static final int RANGE = 16, RELOAD = 8;
+
+    private final int cap;
+    private final OccupancyGrid grid;
+    private final BulletPool bullets;
+    private int size, spawned;
+
+    // The living monsters, one slot of each array apiece.
+    private final int[] row, col;
+    private final byte[] reload;
+
+    // State of the random numbers used for moving and firing.
+    private long seed;
+
+    // Random bits left over for coin flips, and how many.
+    private long coins;
+    private int coinsLeft;
+
+    /**
+     * Make an empty pool that will spawn at most cap monsters.
+     */
+    public MonsterPool(int cap) {
+        this(cap, null, null);
+    }
+
+    /**
+     * Make an empty pool that will spawn at most cap monsters, keep the
+     * given grid up to date, and fire into the given bullet pool. Either may
+     * be null; without bullets, monsters never fire.
+     */
+    public MonsterPool(int cap, OccupancyGrid grid, BulletPool bullets) {
+        this.cap = cap;
+        this.grid = grid;
+        this.bullets = bullets;
+        row = new int[cap];
+        col = new int[cap];
+        reload = new byte[cap];
+        seed = StdRandom.uniform(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the most monsters this pool will ever spawn.
+     */
+    public int getCap() {
+        return cap;
+    }
+
+    /**
+     * Get the number of living monsters.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of monsters spawned so far, living or dead.
+     */
+    public int getNumSpawned() {
+        return spawned;
+    }
+
+    /**
+     * Whether every monster this pool will have has been spawned.
+     */
+    public boolean isFull() {
+        return spawned == cap;
+    }
+
+    /**
+     * Add a monster at the given cell, ready to fire, and return its
+     * index. The pool must not be full.
+     */
+    public int spawn(int r, int c) {
+        if (isFull())
+            throw new IllegalStateException("all " + cap + " monsters have been spawned");
+        int i = size++;
+        spawned++;
+        row[i] = r;
+        col[i] = c;
+        reload[i] = 0;
+        if (grid != null)
+            grid.put(i, OccupancyGrid.MONSTER, r, c);
+        return i;
+    }
+
+    /**
+     * Kill the monster at index i. The last living monster is moved into its
+     * slot.
+     */
+    public void kill(int i) {
+        int last = --size;
+        if (grid != null) {
+            grid.remove(i);
+            if (i != last)
+                grid.rename(last, i);
+        }
+        row[i] = row[last];
+        col[i] = col[last];
+        reload[i] = reload[last];
+    }
+
+    public int getRow(int i) {
+        return row[i];
+    }
+
+    public int getCol(int i) {
+        return col[i];
+    }
+
+    /**
+     * Give every living monster its turn, with the player at (row_p, col_p).
+     */
+    public void takeTurns(int row_p, int col_p) {
+        takeTurns(row_p, col_p, null);
+    }
+
+    /**
+     * Give every living monster its turn, with monsters that step finding
+     * their way to the player by the given flow field, which must be up to
+     * date. Without a field, or from a cell that cannot reach the player,
+     * they just head straight for the player.
+     */
+    public void takeTurns(int row_p, int col_p, FlowField field) {
+        for (int i = 0; i < size; i++)
+            takeTurn(i, row_p, col_p, field);
+        if (grid == null)
+            return;
+
+        // Bring the grid up to date in a second pass, so the turns above
+        // stay a tight loop over the arrays. Taking every monster off first
+        // and putting them all back is cheaper than moving them one by one.
+        grid.removeAll(0, size);
+        for (int i = 0; i < size; i++)
+            grid.put(i, OccupancyGrid.MONSTER, row[i], col[i]);
+    }
+
+    // Give the monster at index i its turn. A monster far enough from the
+    // player that is ready to fire sometimes does, and one that does not
+    // fire takes a step toward them.
+    private void takeTurn(int i, int row_p, int col_p, FlowField field) {
+        int r = row[i], c = col[i];
+        int dr = row_p - r, dc = col_p - c;
+        if (reload[i] > 0) {
+            reload[i]--;
+        } else if (bullets != null && Math.abs(dr) + Math.abs(dc) >= RANGE && random(6) == 0) {
+            fire(r, c, row_p, col_p);
+            reload[i] = RELOAD;
+            return;
+        }
+        if (field != null && field.getDistance(r, c) > 0) {
+            follow(i, r, c, field);
+            return;
+        }
+
+        // Step straight toward the player: along the column if they are in
+        // the same one, along the row if they are in the same row, and
+        // either way on the flip of a coin otherwise. It is worked out with
+        // arithmetic rather than branches, as the coin cannot be predicted.
+        int sr = Integer.signum(dr), sc = Integer.signum(dc);
+        int alongRow = sr & 1 & (coin() | sc & 1 ^ 1); // sr != 0 && (heads || sc == 0)
+        row[i] = r + sr * alongRow;
+        col[i] = c + sc * (alongRow ^ 1);
+    }
+
+    // Fire from (r, c) at the player at (row_p, col_p). Half the shots are
+    // the old single bullet that follows the player, 3 cells a turn until
+    // it leaves the board; the rest are spreads, bursts and rings, which
+    // are slower and only fly a few turns.
+    private void fire(int r, int c, int row_p, int col_p) {
+        switch (random(6)) {
+        case 0:
+            bullets.fireSpread(r, c, row_p, col_p, 2, 12);
+            break;
+        case 1:
+            bullets.fireBurst(r, c, row_p, col_p, 3, 10);
+            break;
+        case 2:
+            bullets.fireRing(r, c, 1, 8);
+            break;
+        default:
+            bullets.fireAimed(r, c, row_p, col_p, 3, Integer.MAX_VALUE);
+        }
+    }
+
+    // Step the monster at index i, on (r, c), onto a neighbor one step
+    // closer to the player by the flow field, picking one at random when
+    // there are several.
+    private void follow(int i, int r, int c, FlowField field) {
+        int closer = field.getDistance(r, c) - 1;
+        int up = r > 0 && field.getDistance(r - 1, c) == closer ? 1 : 0;
+        int down = r < field.getRows() - 1 && field.getDistance(r + 1, c) == closer ? 1 : 0;
+        int left = c > 0 && field.getDistance(r, c - 1) == closer ? 1 : 0;
+        int right = c < field.getCols() - 1 && field.getDistance(r, c + 1) == closer ? 1 : 0;
+        int pick = random(up + down + left + right);
+        if ((pick -= up) < 0)
+            row[i] = r - 1;
+        else if ((pick -= down) < 0)
+            row[i] = r + 1;
+        else if ((pick -= left) < 0)
+            col[i] = c - 1;
+        else
+            col[i] = c + 1;
+    }
+
+    // Flip a coin, giving 0 or 1. A turn flips one for almost every
+    // monster, so the flips are taken 64 at a time from one random long.
+    private int coin() {
+        if (coinsLeft == 0) {
+            seed += 0x9E3779B97F4A7C15L;
+            coins = EndlessBoard.mix64(seed);
+            coinsLeft = 64;
+        }
+        coinsLeft--;
+        int heads = (int)(coins >>> 63);
+        coins <<= 1;
+        return heads;
+    }
+
+    // A random int from 0 to n - 1, from a SplitMix64 stream. It is much
+    // cheaper than StdRandom, which matters with this many monsters.
+    private int random(int n) {
+        seed += 0x9E3779B97F4A7C15L;
+        return (int)(((EndlessBoard.mix64(seed) >>> 33) * n) >>> 31);
+    }
+
+    /**
+     * A main() function, for testing. It plays turns with monsters firing
+     * and being killed at random, checking that the rest stay packed and
+     * that the occupancy grid agrees with the monsters and bullets, then
+     * times turns for 100,000 monsters spread over a big board, without and
+     * with a grid.
+     */
+    public static void main(String args[]) {
+        int rows = 60, cols = 80;
+        OccupancyGrid grid = new OccupancyGrid(rows, cols, 1000 + 4000);
+        BulletPool bullets = new BulletPool(4000, grid, 1000);
+        MonsterPool pool = new MonsterPool(1000, grid, bullets);
+        Board board = new Board(rows, cols);
+        java.util.Random random = new java.util.Random(1);
+        for (int k = 0; k < 1000; k++)
+            pool.spawn(random.nextInt(rows), random.nextInt(cols));
+        for (int turn = 0; turn < 300; turn++) {
+            int pr = turn % rows, pc = turn % cols;
+            bullets.update(board, pr, pc);
+            pool.takeTurns(pr, pc);
+            for (int k = 0; k < 3 && pool.size() > 0; k++)
+                pool.kill(random.nextInt(pool.size()));
+            for (int i = 0; i < pool.size(); i++)
+                if (!grid.isAt(i, pool.getRow(i), pool.getCol(i)))
+                    throw new IllegalStateException("turn " + turn + ": monster " + i + " is not where the grid has it");
+            for (int k = 0; k < bullets.size(); k++) {
+                int b = bullets.get(k);
+                if (!grid.isAt(1000 + b, bullets.getRow(b), bullets.getCol(b)))
+                    throw new IllegalStateException("turn " + turn + ": bullet " + b + " is not where the grid has it");
+            }
+            int monstersOnGrid = 0, bulletsOnGrid = 0;
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < cols; c++) {
+                    monstersOnGrid += grid.count(r, c, OccupancyGrid.MONSTER);
+                    bulletsOnGrid += grid.count(r, c, OccupancyGrid.BULLET);
+                }
+            if (monstersOnGrid != pool.size() || bulletsOnGrid != bullets.size())
+                throw new IllegalStateException("turn " + turn + ": the grid has dead monsters or bullets on it");
+        }
+        StdOut.printf("%d of %d monsters left after the kills, all where the grid has them\n",
+                      pool.size(), pool.getNumSpawned());
+
+        int n = 100000;
+        rows = cols = 1000;
+        for (int withGrid = 0; withGrid < 2; withGrid++) {
+            pool = new MonsterPool(n, withGrid == 0 ? null : new OccupancyGrid(rows, cols, n), null);
+            for (int k = 0; k < n; k++)
+                pool.spawn(random.nextInt(rows), random.nextInt(cols));
+            long best = Long.MAX_VALUE;
+            for (int turn = 0; turn < 2000; turn++) {
+                long start = System.nanoTime();
+                pool.takeTurns(turn % rows, turn % cols);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            StdOut.printf("A turn for %d monsters takes %.3f ms %s\n", n, best / 1e6,
+                          withGrid == 0 ? "on its own" : "with a grid");
+        }
+    }
+}
@@ -0,0 +1,731 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  MonteCarloEstimator estimates the chance that each hidden cell
+ *  holds a mine by sampling layouts, for boards too big or too
+ *  tangled to count exactly.
+ *
+ *  Example: java MonteCarloEstimator          # checks it against
+ *                                             # ProbabilityEngine
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A <i>MonteCarloEstimator</i> gives the same chances as a ProbabilityEngine,
+ * every layout of mines that fits the numbers and the total being equally
+ * likely, but estimates them from a sample of layouts instead of counting
+ * them all. It takes a time budget, gives its best estimate when the time is
+ * up, and can be asked to keep going on the same snapshot to improve it.
+ * Each cell also gets a confidence bound: the true chance is within it about
+ * 95 times in 100.
+ *
+ * Cells the Solver proves safe or mines are settled first. The rest of the
+ * hidden cells next to a number make up the frontier, and the others (the
+ * interior) are interchangeable, so only the number of mines among them is
+ * kept.
+ *
+ * The layouts come from several Markov chains. They all start from one
+ * layout, found once by a randomized backtracking search that only ever
+ * builds layouts that fit the numbers, and then each moves on its own by
+ * block Gibbs steps: it takes a small block of frontier cells that share
+ * numbers, and picks a new filling for the block at random among all those
+ * that fit, each weighted by the number of ways the interior can hold the
+ * mines that are left. Every step
+ * keeps the layout consistent, and leaves the chain at the right
+ * distribution, so the average over the layouts it visits converges on the
+ * exact chances. A chain's first sweep is a burn-in. Its samples are
+ * counted while it is the only sweep, so a short budget still gets an
+ * estimate, and taken off again once the chain has made a second sweep.
+ *
+ * The Solver, settling the known cells and building the frontier all stop
+ * when the time runs out, as does the search for the first layout. If no
+ * layout is sampled in time, isSampled() returns false and every
+ * undetermined cell is given the density of the mines left, with a bound
+ * covering every chance from 0 to 1. Cells not settled in time are worked
+ * out from the snapshot when they are asked for, so it must not change
+ * while the estimate is being read.
+ *
+ * The chains run in rounds on the fork-join pool, whose worker threads steal
+ * chains from each other, so every core stays busy however long each chain
+ * takes. The confidence bounds come from how much the chains disagree with
+ * each other, which accounts for the samples of one chain not being
+ * independent.
+ */
+public class MonteCarloEstimator {
+
+    /**
+     * The number of chains, unless another number is given.
+     */
+    public static final int DEFAULT_CHAINS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
+    // Cells in a block for one Gibbs step.
+    private static final int BLOCK = 12;
+
+    // Gibbs steps between the samples a chain counts, so that neighboring
+    // samples are not nearly the same layout.
+    private static final int SAMPLE_STEPS = 16;
+
+    // Sweeps each chain makes in one round, at most. Rounds start short so
+    // a small budget still gives every chain a turn.
+    private static final int MAX_ROUND = 32;
+
+    // About 95% of a normal distribution is within this many standard errors.
+    private static final double Z = 1.96;
+
+    private static final double UNSET = -1.0;
+
+    private final Solver solver = new Solver();
+    private final long seed;
+    private final int numChains;
+
+    private int rows, cols;
+
+    // Chance of a mine in each cell, and the half width of its confidence
+    // bound, indexed row * cols + col. NaN for revealed cells. Only rows above
+    // settledRows are filled in, and the rest are worked out from the
+    // snapshot when asked for. Interior cells are left UNSET, and share
+    // interiorProbability and interiorBound.
+    private double[] probability = new double[0], bound = new double[0];
+    private Snapshot snap;
+    private int settledRows;
+    private double interiorProbability, interiorBound;
+    private boolean sampled;
+
+    // The frontier, as in ProbabilityEngine: variables are frontier cells
+    // and constraints the numbers around them, linked both ways. varOf maps
+    // each cell to its variable, or -1, and is put back to all -1 after each
+    // build, so it is only allocated again for a new size of board.
+    private int numVars, numCons;
+    private int[] varCell = new int[0], varOf = new int[0];
+    private int[] varConStart, varCons, consVarStart, consVars, consNeed;
+
+    // The variables of each component, in breadth-first order, in CSR form.
+    private int numComponents;
+    private int[] order, compStart;
+
+    // Mines left to place, and the number of interior cells they can go in.
+    private int minesLeft, interior;
+
+    // The layout every chain starts from.
+    private int[] firstLayout;
+
+    private Chain[] chains = new Chain[0];
+    private int roundSweeps;
+
+    // Read by the chains, and set early by cancel().
+    private volatile long deadline;
+
+    /**
+     * Make an estimator with the default number of chains, seeded from the
+     * clock.
+     */
+    public MonteCarloEstimator() {
+        this(System.nanoTime(), DEFAULT_CHAINS);
+    }
+
+    /**
+     * Make an estimator with the given number of chains (at least 2), whose
+     * samples come from the given seed. Chains run as the pool schedules
+     * them, so the numbers are only repeatable for the same amount of work.
+     */
+    public MonteCarloEstimator(long seed, int numChains) {
+        if (numChains < 2)
+            throw new IllegalArgumentException("need at least 2 chains, not " + numChains);
+        this.seed = seed;
+        this.numChains = numChains;
+    }
+
+    /**
+     * Estimate the mine probabilities for a snapshot, spending about
+     * budgetNanos, which includes running the Solver. The snapshot must not
+     * change until the estimate has been read.
+     * Returns true if the answer is exact, which happens when there is no
+     * frontier left to sample.
+     */
+    public boolean estimate(Snapshot snap, long budgetNanos) {
+        deadline = System.nanoTime() + budgetNanos;
+        this.snap = snap;
+        rows = snap.getRows();
+        cols = snap.getCols();
+        if (probability.length != rows * cols) {
+            probability = new double[rows * cols];
+            bound = new double[rows * cols];
+        }
+        settledRows = 0;
+        numVars = 0;
+        chains = new Chain[0];
+        solver.solve(snap, deadline);
+
+        // What is left, from the snapshot's counts and what the solver found.
+        minesLeft = snap.getMines() - snap.getShownMines() - solver.getNumMines();
+        interior = snap.getHidden() - solver.getNumMines() - solver.getNumSafe();
+
+        // Settle what is already known, as far as there is time for.
+        while (settledRows < rows && System.nanoTime() <= deadline) {
+            int r = settledRows++;
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                probability[i] = settled(r, c);
+                bound[i] = Double.isNaN(probability[i]) ? Double.NaN : 0.0;
+            }
+        }
+        if (settledRows == rows && buildFrontier(snap) && numVars > 0 && findFirstLayout()) {
+            chains = new Chain[numChains];
+            for (int k = 0; k < chains.length; k++)
+                chains[k] = new Chain(EndlessBoard.mix64(seed + k));
+        }
+        roundSweeps = 1;
+        sample();
+        return numVars == 0 && settledRows == rows;
+    }
+
+    // Find the layout the chains start from, with a chain of its own.
+    // Returns false if the time ran out first.
+    private boolean findFirstLayout() {
+        firstLayout = new int[numVars];
+        Chain finder = new Chain(seed);
+        if (!finder.search())
+            return false;
+        firstLayout = finder.value;
+        return true;
+    }
+
+    // What is known of a cell before the frontier is looked at: NaN if it
+    // is revealed, 1 or 0 if it is a mine or proved safe, else UNSET.
+    private double settled(int row, int col) {
+        byte code = snap.get(row, col);
+        if (code == Snapshot.MINE || solver.isMine(row, col))
+            return 1.0;
+        else if (code >= 0)
+            return Double.NaN;
+        else if (solver.isSafe(row, col))
+            return 0.0;
+        return UNSET;
+    }
+
+    /**
+     * Keep sampling the last snapshot for about budgetNanos more, to narrow
+     * the confidence bounds.
+     */
+    public void refine(long budgetNanos) {
+        deadline = System.nanoTime() + budgetNanos;
+        sample();
+    }
+
+    /**
+     * Make an estimate() or refine() running on another thread stop soon, as
+     * if its time had run out.
+     */
+    public void cancel() {
+        deadline = Long.MIN_VALUE;
+    }
+
+    // Run rounds of the chains until the time runs out, then pool their
+    // counts.
+    private void sample() {
+        while (chains.length > 0 && System.nanoTime() < deadline) {
+            int sweeps = roundSweeps;
+            IntStream.range(0, chains.length).parallel().forEach(k -> chains[k].run(sweeps));
+            roundSweeps = Math.min(MAX_ROUND, 2 * roundSweeps);
+        }
+        pool();
+    }
+
+    // Collect the undetermined cells next to a number as variables, and the
+    // numbers touching them as constraints, with the mines already known
+    // taken off each number. Returns false if the time ran out first.
+    private boolean buildFrontier(Snapshot snap) {
+        int cells = rows * cols;
+        if (varOf.length != cells) {
+            varOf = new int[cells];
+            Arrays.fill(varOf, -1);
+        }
+        IntStack links = new IntStack();
+        IntStack needs = new IntStack(), starts = new IntStack();
+        numVars = 0;
+        starts.push(0);
+        boolean inTime = true;
+        for (int r = 0; r < rows && inTime; r++) {
+            for (int c = 0; c < cols; c++) {
+                byte code = snap.get(r, c);
+                if (code < 0)
+                    continue;
+                int need = code, before = links.size();
+                for (int rr = Math.max(0, r - 1); rr <= Math.min(rows - 1, r + 1); rr++)
+                    for (int cc = Math.max(0, c - 1); cc <= Math.min(cols - 1, c + 1); cc++) {
+                        int i = rr * cols + cc;
+                        if (probability[i] == 1.0) {
+                            need--;
+                        } else if (probability[i] == UNSET) {
+                            if (varOf[i] < 0) {
+                                if (numVars == varCell.length)
+                                    varCell = Arrays.copyOf(varCell, Math.max(64, 2 * numVars));
+                                varOf[i] = numVars;
+                                varCell[numVars++] = i;
+                            }
+                            links.push(varOf[i]);
+                        }
+                    }
+                if (links.size() > before) {
+                    needs.push(need);
+                    starts.push(links.size());
+                }
+            }
+            inTime = System.nanoTime() <= deadline;
+        }
+
+        // Put the cell map back for next time, touching only the frontier.
+        for (int v = 0; v < numVars; v++)
+            varOf[varCell[v]] = -1;
+        if (!inTime) {
+            numVars = 0;
+            return false;
+        }
+        numCons = needs.size();
+        consNeed = new int[numCons];
+        consVarStart = new int[numCons + 1];
+        consVars = new int[links.size()];
+        for (int con = 0; con < numCons; con++) {
+            consNeed[con] = needs.get(con);
+            consVarStart[con + 1] = starts.get(con + 1);
+        }
+        for (int k = 0; k < consVars.length; k++)
+            consVars[k] = links.get(k);
+
+        varConStart = new int[numVars + 1];
+        for (int k = 0; k < consVars.length; k++)
+            varConStart[consVars[k] + 1]++;
+        for (int v = 0; v < numVars; v++)
+            varConStart[v + 1] += varConStart[v];
+        varCons = new int[consVars.length];
+        int[] next = Arrays.copyOf(varConStart, numVars);
+        for (int con = 0; con < numCons; con++)
+            for (int k = consVarStart[con]; k < consVarStart[con + 1]; k++)
+                varCons[next[consVars[k]]++] = con;
+
+        findComponents();
+
+        // The undetermined cells left over are the interior.
+        interior -= numVars;
+        return true;
+    }
+
+    // Split the variables into components that share a constraint, each
+    // listed in breadth-first order.
+    private void findComponents() {
+        boolean[] seen = new boolean[numVars];
+        order = new int[numVars];
+        IntStack starts = new IntStack();
+        int n = 0;
+        for (int v0 = 0; v0 < numVars; v0++) {
+            if (seen[v0])
+                continue;
+            starts.push(n);
+            seen[v0] = true;
+            order[n++] = v0;
+            for (int head = n - 1; head < n; head++) {
+                int v = order[head];
+                for (int k = varConStart[v]; k < varConStart[v + 1]; k++)
+                    for (int j = consVarStart[varCons[k]]; j < consVarStart[varCons[k] + 1]; j++)
+                        if (!seen[consVars[j]]) {
+                            seen[consVars[j]] = true;
+                            order[n++] = consVars[j];
+                        }
+            }
+        }
+        numComponents = starts.size();
+        compStart = new int[numComponents + 1];
+        for (int c = 0; c < numComponents; c++)
+            compStart[c] = starts.get(c);
+        compStart[numComponents] = numVars;
+    }
+
+    // Turn the counts of the chains into probabilities and bounds. A cell's
+    // estimate is the mean over all samples, and its standard error the
+    // spread of the chain means, but never less than if the samples were
+    // independent. With no samples at all, every undetermined cell gets the
+    // density of the mines left.
+    private void pool() {
+        long total = getNumSamples();
+        sampled = total > 0;
+        if (!sampled) {
+            int cells = interior + numVars;
+            double p = cells > 0 ? Math.min(1.0, Math.max(0.0, (double)minesLeft / cells)) : 0.0;
+            interiorProbability = p;
+            interiorBound = numVars == 0 && settledRows == rows ? 0.0 : Math.max(p, 1 - p);
+            for (int v = 0; v < numVars; v++) {
+                probability[varCell[v]] = p;
+                bound[varCell[v]] = interiorBound;
+            }
+            return;
+        }
+        int used = 0;
+        for (Chain chain : chains)
+            if (chain.samples > 0)
+                used++;
+        double[] means = new double[chains.length];
+        for (int v = 0; v <= numVars; v++) {
+            // v == numVars stands for every interior cell.
+            double hits = 0;
+            for (int k = 0; k < chains.length; k++) {
+                Chain chain = chains[k];
+                double h = v < numVars ? chain.hits[v] : chain.interiorMines / Math.max(1, interior);
+                hits += h;
+                means[k] = chain.samples > 0 ? h / chain.samples : 0;
+            }
+            double p = hits / total;
+            double spread = 0;
+            for (int k = 0; k < chains.length; k++)
+                if (chains[k].samples > 0)
+                    spread += (means[k] - p) * (means[k] - p);
+            double error = used > 1 ? Math.sqrt(spread / (used * (used - 1.0))) : 0.5;
+            error = Math.max(error, Math.sqrt(p * (1 - p) / total));
+            double half = Math.min(1.0, Z * error);
+            if (v < numVars) {
+                probability[varCell[v]] = p;
+                bound[varCell[v]] = half;
+            } else {
+                interiorProbability = p;
+                interiorBound = half;
+            }
+        }
+    }
+
+    /**
+     * Get the estimated chance that a cell is a mine. It is NaN for revealed
+     * cells, 0 or 1 for cells that are certain.
+     */
+    public double getProbability(int row, int col) {
+        double p = row < settledRows ? probability[row * cols + col] : settled(row, col);
+        return p == UNSET ? interiorProbability : p;
+    }
+
+    /**
+     * Get the half width of the 95% confidence bound on a cell's chance: the
+     * true chance is within this much of getProbability() about 95 times in
+     * 100. It is 0 for cells that are certain, and NaN for revealed ones.
+     */
+    public double getBound(int row, int col) {
+        if (row >= settledRows) {
+            double p = settled(row, col);
+            return Double.isNaN(p) ? p : p == UNSET ? interiorBound : 0.0;
+        }
+        int i = row * cols + col;
+        return probability[i] == UNSET ? interiorBound : bound[i];
+    }
+
+    /**
+     * Returns false if no layout was sampled in time, so the chances are
+     * only the density of the mines left, the same for every undetermined
+     * cell, and should not be used to rank cells.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * Get the number of layouts sampled so far, over all chains.
+     */
+    public long getNumSamples() {
+        long total = 0;
+        for (Chain chain : chains)
+            total += chain.samples;
+        return total;
+    }
+
+    /**
+     * Get the number of cells on the frontier of the last snapshot.
+     */
+    public int getNumFrontier() {
+        return numVars;
+    }
+
+    // One Markov chain: a layout of the frontier, and its counts so far. A
+    // chain is only ever run by one thread at a time.
+    private class Chain {
+        final SplittableRandom random;
+        final int[] value = new int[numVars];       // 0 or 1 for each variable
+        final int[] have = new int[numCons];        // mines on each constraint
+        final int[] free = new int[numCons];        // variables left unset
+        int mines;                                  // mines on the frontier
+        long steps;
+
+        final long[] hits = new long[numVars];
+        double interiorMines;
+        long samples;
+
+        // The counts of the first sweep, taken off again after the second.
+        long[] burnHits;
+        double burnInteriorMines;
+        long burnSamples;
+
+        // Scratch for the Gibbs steps.
+        final int[] block = new int[BLOCK];
+        final int[] inBlock = new int[numVars];
+        int stamp;
+        final double[] weight = new double[BLOCK + 1];
+        long chosen;
+        double totalWeight;
+
+        // Start from the first layout, with every variable set.
+        Chain(long seed) {
+            random = new SplittableRandom(seed);
+            System.arraycopy(firstLayout, 0, value, 0, numVars);
+            for (int v = 0; v < numVars; v++) {
+                mines += value[v];
+                for (int k = varConStart[v]; k < varConStart[v + 1]; k++)
+                    have[varCons[k]] += value[v];
+            }
+        }
+
+        // Make the given number of sweeps of about one block per BLOCK
+        // frontier cells, counting a sample every SAMPLE_STEPS steps, or
+        // every sweep if that is shorter. The first sweep lets the chain
+        // wander away from its starting layout. Its samples are counted, so
+        // that a short budget still gets some, but once a second sweep is
+        // done they are taken off again.
+        void run(int sweeps) {
+            int sweep = Math.max(1, numVars / BLOCK), every = Math.min(SAMPLE_STEPS, sweep);
+            for (int k = 0; k < sweeps * sweep; k++) {
+                if ((k & 15) == 0 && System.nanoTime() > deadline)
+                    return;
+                step();
+                if (++steps % every == 0) {
+                    for (int v = 0; v < numVars; v++)
+                        hits[v] += value[v];
+                    interiorMines += minesLeft - mines;
+                    samples++;
+                }
+                if (steps == sweep) {
+                    burnHits = hits.clone();
+                    burnInteriorMines = interiorMines;
+                    burnSamples = samples;
+                } else if (steps == 2 * sweep) {
+                    for (int v = 0; v < numVars; v++)
+                        hits[v] -= burnHits[v];
+                    interiorMines -= burnInteriorMines;
+                    samples -= burnSamples;
+                    burnHits = null;
+                }
+            }
+        }
+
+        // Find a layout that fits by backtracking in random value order, one
+        // component at a time so a dead end only undoes its own component.
+        // The interior takes whatever mines the frontier leaves, so the
+        // frontier must hold between minesLeft - interior and minesLeft of
+        // them; mines are tried first about as often as the density of the
+        // board, and a layout with too many or too few is thrown away.
+        // Returns false if the time ran out first.
+        boolean search() {
+            double density = (double)minesLeft / (interior + numVars);
+            int[] tried = new int[numVars], first = new int[numVars];
+            long nodes = 0;
+            while (true) {
+                Arrays.fill(value, 0);
+                Arrays.fill(have, 0);
+                mines = 0;
+                for (int con = 0; con < numCons; con++)
+                    free[con] = consVarStart[con + 1] - consVarStart[con];
+                for (int c = 0; c < numComponents; c++) {
+                    int p = compStart[c];
+                    tried[p] = 0;
+                    first[p] = random.nextDouble() < density ? 1 : 0;
+                    while (p < compStart[c + 1]) {
+                        if (p < compStart[c])
+                            throw new IllegalStateException("no layout fits the snapshot");
+                        if ((++nodes & 0x3FF) == 0 && System.nanoTime() > deadline)
+                            return false;
+                        int v = order[p];
+                        if (tried[p] > 0)
+                            unset(v, value[v]);
+                        if (tried[p] == 2) {
+                            p--;
+                            continue;
+                        }
+                        int x = tried[p]++ == 0 ? first[p] : 1 - first[p];
+                        if (set(v, x) && ++p < numVars) {
+                            tried[p] = 0;
+                            first[p] = random.nextDouble() < density ? 1 : 0;
+                        }
+                    }
+                }
+                if (mines <= minesLeft && mines >= minesLeft - interior)
+                    return true;
+            }
+        }
+
+        // Give variable v the value x. Returns false if some constraint can
+        // no longer be met.
+        boolean set(int v, int x) {
+            value[v] = x;
+            mines += x;
+            boolean ok = true;
+            for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+                int con = varCons[k];
+                have[con] += x;
+                free[con]--;
+                if (have[con] > consNeed[con] || have[con] + free[con] < consNeed[con])
+                    ok = false;
+            }
+            return ok;
+        }
+
+        void unset(int v, int x) {
+            value[v] = 0;
+            mines -= x;
+            for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+                int con = varCons[k];
+                have[con] -= x;
+                free[con]++;
+            }
+        }
+
+        // One block Gibbs step: take up to BLOCK variables that share
+        // constraints, starting from a random one, and refill them with a
+        // random filling that fits, picked in proportion to the ways to
+        // place the mines left over in the interior.
+        void step() {
+            stamp++;
+            int n = 0;
+            block[n++] = random.nextInt(numVars);
+            inBlock[block[0]] = stamp;
+            for (int head = 0; head < n && n < BLOCK; head++) {
+                int v = block[head];
+                for (int k = varConStart[v]; k < varConStart[v + 1] && n < BLOCK; k++) {
+                    int con = varCons[k];
+                    for (int j = consVarStart[con]; j < consVarStart[con + 1] && n < BLOCK; j++) {
+                        int w = consVars[j];
+                        if (inBlock[w] != stamp) {
+                            inBlock[w] = stamp;
+                            block[n++] = w;
+                        }
+                    }
+                }
+            }
+            long old = 0;
+            for (int q = 0; q < n; q++) {
+                old |= (long)value[block[q]] << q;
+                unset(block[q], value[block[q]]);
+            }
+
+            // The weight of the block holding b mines.
+            double best = Double.NEGATIVE_INFINITY;
+            for (int b = 0; b <= n; b++)
+                best = Math.max(best, ProbabilityEngine.logChoose(interior, minesLeft - mines - b));
+            for (int b = 0; b <= n; b++)
+                weight[b] = Math.exp(ProbabilityEngine.logChoose(interior, minesLeft - mines - b) - best);
+
+            chosen = old;
+            totalWeight = 0;
+            fill(n, 0, 0, 0);
+            for (int q = 0; q < n; q++)
+                set(block[q], (int)(chosen >>> q) & 1);
+        }
+
+        // Try both values for the q'th cell of the block, and pick among the
+        // complete fillings by reservoir sampling.
+        void fill(int n, int q, long bits, int b) {
+            if (q == n) {
+                double w = weight[b];
+                totalWeight += w;
+                if (w > 0 && random.nextDouble() * totalWeight < w)
+                    chosen = bits;
+                return;
+            }
+            int v = block[q];
+            for (int x = 0; x <= 1; x++) {
+                if (set(v, x))
+                    fill(n, q + 1, bits | (long)x << q, b + x);
+                unset(v, x);
+            }
+        }
+    }
+
+    /**
+     * A main() function, for testing. It plays games on hard boards, and at
+     * each guess compares the estimates with the exact chances from a
+     * ProbabilityEngine: how far off they are, and how often the exact chance
+     * is inside the bound. Then it times the estimator on a big board.
+     */
+    public static void main(String args[]) {
+        int rows = Game.VIEW_ROWS, cols = Game.VIEW_COLS;
+        int numMines = Minesweeper.scaleMines(100, rows, cols);
+        ProbabilityEngine exact = new ProbabilityEngine();
+        for (long budget : new long[] { 10_000_000L, 50_000_000L }) {
+            MonteCarloEstimator estimator = new MonteCarloEstimator(7, DEFAULT_CHAINS);
+            double worst = 0, error = 0;
+            long cells = 0, inside = 0, checks = 0, samples = 0;
+            for (int g = 0; g < 20; g++) {
+                Board board = new Board(rows, cols);
+                board.deployMines(numMines, new java.util.Random(g));
+                Snapshot snap = new Snapshot(rows, cols);
+                Strategy player = Strategy.create("logic");
+                java.util.Random random = new java.util.Random(g);
+                IntStack moves = new IntStack();
+                for (int turn = 0; turn < 200; turn++) {
+                    snap.update(board);
+                    moves.clear();
+                    boolean sure = player.choose(snap, random, moves);
+                    if (!sure && exact.compute(snap, 1_000_000_000L) && turn > 0) {
+                        estimator.estimate(snap, budget);
+                        samples += estimator.getNumSamples();
+                        checks++;
+                        for (int r = 0; r < rows; r++)
+                            for (int c = 0; c < cols; c++) {
+                                if (snap.get(r, c) != Snapshot.HIDDEN)
+                                    continue;
+                                double off = Math.abs(estimator.getProbability(r, c) - exact.getProbability(r, c));
+                                worst = Math.max(worst, off);
+                                error += off;
+                                cells++;
+                                if (off <= estimator.getBound(r, c) + 1e-9)
+                                    inside++;
+                            }
+                    }
+                    if (moves.isEmpty() || board.isMine(moves.get(0) / cols, moves.get(0) % cols))
+                        break;
+                    for (int k = 0; k < moves.size(); k++) {
+                        int r = moves.get(k) / cols, c = moves.get(k) % cols;
+                        if (!board.isMine(r, c) && board.reveal(r, c) && board.coastIsClear(r, c))
+                            board.uncoverNeighboringBlanks(r, c);
+                    }
+                    if (board.getCounters().getSafeCellsRemaining() == 0)
+                        break;
+                }
+            }
+            StdOut.printf("%3.0f ms budget: %d guesses, %.0f samples each, mean error %.4f, "
+                          + "worst %.4f, exact chance inside the bound for %.1f%% of cells\n",
+                          budget / 1e6, checks, (double)samples / Math.max(1, checks),
+                          error / Math.max(1, cells), worst, 100.0 * inside / Math.max(1, cells));
+        }
+
+        // A big dense board with a few openings showing, too big to count.
+        int big = 300;
+        Board board = new Board(big, big);
+        board.deployMines(big * big / 5, new java.util.Random(3));
+        for (int r = 0; r < big; r++)
+            for (int c = 0; c < big; c++)
+                if (!board.isMine(r, c) && board.coastIsClear(r, c) && !board.isRevealed(r, c))
+                    board.uncoverNeighboringBlanks(r, c);
+        Snapshot snap = new Snapshot(board);
+        MonteCarloEstimator estimator = new MonteCarloEstimator(1, DEFAULT_CHAINS);
+        estimator.estimate(snap, 50_000_000L);
+        StdOut.printf("%d x %d: %d frontier cells, %d samples in 50 ms%s", big, big, estimator.getNumFrontier(),
+                      estimator.getNumSamples(), estimator.isSampled() ? "" : " (density only)");
+        estimator.estimate(snap, 100_000_000L);
+        StdOut.printf(", %d in 100 ms", estimator.getNumSamples());
+        estimator.refine(400_000_000L);
+        double widest = 0;
+        for (int r = 0; r < big; r++)
+            for (int c = 0; c < big; c++)
+                if (!Double.isNaN(estimator.getBound(r, c)))
+                    widest = Math.max(widest, estimator.getBound(r, c));
+        StdOut.printf(", %d after 500 ms, widest bound +/- %.3f\n", estimator.getNumSamples(), widest);
+    }
+}
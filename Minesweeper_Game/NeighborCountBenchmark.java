@@ -0,0 +1,79 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Times the two ways of working out neighbor mine counts.
+ *
+ *  Example: java NeighborCountBenchmark
+ *  Example: java NeighborCountBenchmark 5000 5000 4166666
+ *----------------------------------------------------------------*/
+
+import java.util.Random;
+
+/**
+ * <i>NeighborCountBenchmark</i> compares Board.computeNeighborCounts(), which
+ * builds every count in one word-at-a-time pass over the mine bitset, against
+ * the old way of adding one to the 8 cells around each mine as it is placed
+ * (which is what Board.makeMine() still does). Both are run on the same mine
+ * layouts, and the counts are checked to match.
+ */
+public class NeighborCountBenchmark {
+
+    // How many times each measurement is repeated. The best time is kept, so
+    // the JIT has warmed up by the time it counts.
+    private static final int RUNS = 20;
+
+    public static void main(String args[]) {
+        if (args.length == 3) {
+            run(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        // The classic board and the title screen sizes, at "hard" density.
+        for (int[] size : TitleScreen.SIZES) {
+            int rows = size[0], cols = size[1];
+            run(rows, cols, Minesweeper.scaleMines(100, rows, cols));
+        }
+    }
+
+    // Time both ways on one board size and print a line of results.
+    private static void run(int rows, int cols, int mines) {
+        Board layout = new Board(rows, cols);
+        layout.deployMines(mines, new Random(1234));
+        int[] mineRows = new int[mines], mineCols = new int[mines];
+        int n = 0;
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                if (layout.isMine(r, c)) {
+                    mineRows[n] = r;
+                    mineCols[n] = c;
+                    n++;
+                }
+
+        long perMine = Long.MAX_VALUE;
+        Board incremental = null;
+        for (int run = 0; run < RUNS; run++) {
+            incremental = new Board(rows, cols);
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                incremental.makeMine(mineRows[i], mineCols[i]);
+            perMine = Math.min(perMine, System.nanoTime() - start);
+        }
+
+        long wordPass = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            layout.computeNeighborCounts();
+            wordPass = Math.min(wordPass, System.nanoTime() - start);
+        }
+
+        boolean same = true;
+        for (int r = 0; r < rows && same; r++)
+            for (int c = 0; c < cols && same; c++)
+                same = incremental.getNeighborMineCount(r, c) == layout.getNeighborMineCount(r, c);
+
+        StdOut.printf("%5d x %-5d %9d mines   per-mine %9.3f ms   word pass %9.3f ms   %5.1fx   %s\n",
+                      rows, cols, n, perMine / 1e6, wordPass / 1e6,
+                      (double)perMine / wordPass, same ? "counts match" : "COUNTS DIFFER");
+    }
+}
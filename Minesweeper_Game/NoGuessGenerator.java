@@ -0,0 +1,284 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  NoGuessGenerator makes mine layouts that can be cleared by logic
+ *  alone, without ever having to guess.
+ *
+ *  Example: java NoGuessGenerator          # latency per difficulty
+ *  Example: java NoGuessGenerator 500      # the same, over 500 seeds
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * A <i>NoGuessGenerator</i> finds a mine layout that the Solver can clear
+ * from the first click without guessing. The first click is always the
+ * middle cell of the board, and the 3 x 3 block around it is kept clear of
+ * mines, so it opens an opening.
+ *
+ * Candidate layouts are numbered 0, 1, 2, ..., and candidate k is made by
+ * Board.deployMines() from a Random seeded with a hash of the seed and k.
+ * Each worker thread takes the next candidate number, deploys it on its own
+ * board, and plays it with the Solver from the first click. The layout kept
+ * is the lowest numbered candidate that can be cleared, not whichever one a
+ * thread happened to finish first, so the result only depends on the seed,
+ * however many cores there are. A worker stops as soon as every candidate
+ * below the best one found so far has been checked.
+ *
+ * The search also has a work budget, which grows with the size of the board
+ * (see getWorkBudget()). Hard boards of 200 x 300 and up are almost never
+ * cleared without a guess, so without one the search would run for a very
+ * long time before the game could start. Work is counted in cells: deploying
+ * a candidate and opening its first click costs one board's worth, and so
+ * does each Solver pass. A candidate is only in the budget if the candidates
+ * below it cost less than the budget all together, and it is given up on
+ * when its own cost reaches the budget. How much each candidate costs only
+ * depends on its layout, so where the search gives up only depends on the
+ * seed, and not on the clock or the number of cores. If no candidate in the
+ * budget can be cleared, the generator keeps candidate 0. The clock is only
+ * read to report how long generate() took.
+ */
+public class NoGuessGenerator {
+
+    /**
+     * How many candidates to try before giving up and keeping a layout that
+     * may need a guess.
+     */
+    public static final int MAX_CANDIDATES = 1 << 20;
+
+    /**
+     * The work budget of generate() is MIN_WORK cells, plus WORK_PER_CELL for
+     * each cell of the board, up to MAX_WORK. On one core here, a search that
+     * uses it all up takes about 0.3 s at 60 x 90, 1 s at 200 x 300, 1 to 2 s
+     * at 1000 x 1000, and 6 s at 5000 x 5000, where only candidate 0 fits.
+     */
+    public static final long MIN_WORK = 2500000L, WORK_PER_CELL = 50L, MAX_WORK = 60000000L;
+
+    private final int rows, cols, mines;
+    private final long seed;
+
+    // The best candidate so far, and the next one to hand out.
+    private final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger next = new AtomicInteger();
+
+    // The work spent on the candidates checked so far, and on each one.
+    private final AtomicLong spent = new AtomicLong();
+    private AtomicIntegerArray cost;
+    private long budget;
+
+    private int candidate = -1;
+    private int tried;
+    private long nanos;
+
+    /**
+     * Set up a generator for a rows by cols board with the given number of
+     * mines. The same seed always gives the same layout.
+     */
+    public NoGuessGenerator(int rows, int cols, int mines, long seed) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+    }
+
+    /**
+     * Get the work generate() may spend on this board, in cells looked at.
+     */
+    public long getWorkBudget() {
+        return Math.min(MAX_WORK, MIN_WORK + WORK_PER_CELL * rows * cols);
+    }
+
+    /**
+     * Search for the layout, using every core. Returns true if one was found
+     * that needs no guessing. Either way it can then be put on a board with
+     * deploy().
+     */
+    public boolean generate() {
+        long start = System.nanoTime();
+        budget = getWorkBudget();
+        best.set(Integer.MAX_VALUE);
+        next.set(0);
+        spent.set(0);
+
+        // Every candidate costs at least one board, so no more than this many
+        // can start in the budget.
+        cost = new AtomicIntegerArray((int)Math.min(MAX_CANDIDATES, budget / ((long)rows * cols) + 1));
+        int workers = Runtime.getRuntime().availableProcessors();
+        IntStream.range(0, workers).parallel().forEach(w -> work());
+
+        // Every candidate up to the best one has been checked, so whether the
+        // best is in the budget can be told from their costs alone.
+        int found = best.get();
+        long before = 0;
+        for (int k = 0; k < Math.min(found, cost.length()) && before < budget; k++)
+            before += cost.get(k);
+        boolean ok = found < cost.length() && before < budget;
+        candidate = ok ? found : 0;
+        tried = Math.min(next.get(), MAX_CANDIDATES);
+        nanos = System.nanoTime() - start;
+        return ok;
+    }
+
+    // One worker: check candidates in order until none left could beat the
+    // best one found, or the ones checked so far have used up the budget.
+    // Every candidate not yet handed out then costs more than the budget
+    // with the ones below it, so none of them could be kept.
+    private void work() {
+        Solver solver = new Solver();
+        Snapshot snap = new Snapshot(rows, cols);
+        while (true) {
+            int k = next.getAndIncrement();
+            if (k >= cost.length() || k > best.get() || spent.get() >= budget)
+                return;
+            Board board = new Board(rows, cols);
+            deploy(board, k);
+            if (clears(k, board, solver, snap))
+                best.accumulateAndGet(k, Math::min);
+        }
+    }
+
+    // Play the given candidate's board with the solver from the first
+    // click, and return true if every safe cell gets revealed. If the
+    // candidate's cost reaches the budget first, it is given up on.
+    private boolean clears(int candidate, Board board, Solver solver, Snapshot snap) {
+        int cells = rows * cols, passes = 0;
+        try {
+            board.reveal(getStartRow(), getStartCol());
+            board.uncoverNeighboringBlanks(getStartRow(), getStartCol());
+            while (board.getCounters().getSafeCellsRemaining() > 0) {
+                if ((passes + 1L) * cells >= budget)
+                    return false;
+                passes++;
+                if (!pass(board, solver, snap))
+                    return false;
+            }
+            return true;
+        } finally {
+            cost.set(candidate, (int)Math.min(Integer.MAX_VALUE, (passes + 1L) * cells));
+            spent.addAndGet((passes + 1L) * cells);
+        }
+    }
+
+    // Reveal everything the solver proves safe on the board. Returns false if
+    // there was nothing.
+    private boolean pass(Board board, Solver solver, Snapshot snap) {
+        snap.update(board);
+        solver.solve(snap);
+        int progress = 0;
+        for (int k = 0; k < solver.getNumSafe(); k++) {
+            int r = solver.getSafe(k) / cols, c = solver.getSafe(k) % cols;
+            if (board.reveal(r, c)) {
+                progress++;
+                if (board.coastIsClear(r, c))
+                    board.uncoverNeighboringBlanks(r, c);
+            }
+        }
+        return progress > 0;
+    }
+
+    // Put candidate k's mines on an empty board.
+    private void deploy(Board board, int k) {
+        Random random = new Random(EndlessBoard.mix64(seed ^ EndlessBoard.mix64(k)));
+        board.deployMines(mines, random, getStartRow(), getStartCol());
+    }
+
+    /**
+     * Put the layout found by generate() on an empty board of the same size.
+     */
+    public void deploy(Board board) {
+        deploy(board, candidate);
+    }
+
+    /**
+     * Get the row of the first click, which the layout was checked from.
+     */
+    public int getStartRow() {
+        return rows / 2;
+    }
+
+    /**
+     * Get the column of the first click, which the layout was checked from.
+     */
+    public int getStartCol() {
+        return cols / 2;
+    }
+
+    /**
+     * Get the number of the candidate that was kept.
+     */
+    public int getCandidate() {
+        return candidate;
+    }
+
+    /**
+     * Get how many candidates were handed out to the workers, including ones
+     * past the kept one that were already started.
+     */
+    public int getNumTried() {
+        return tried;
+    }
+
+    /**
+     * Get how long the last generate() took, in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * A main() function, for testing. It generates no-guess boards for many
+     * seeds at each difficulty, and prints the latency percentiles, on a
+     * board the size of the view and, with fewer seeds, on a 200 x 300 board.
+     * It also checks that the same seed gives the same layout twice, whether
+     * or not one was found.
+     */
+    public static void main(String args[]) {
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        report(Game.VIEW_ROWS, Game.VIEW_COLS, seeds);
+        report(200, 300, Math.max(2, seeds / 40));
+    }
+
+    // Print the latency of generating rows by cols boards for the given
+    // number of seeds at each difficulty.
+    private static void report(int rows, int cols, int seeds) {
+        for (String level : new String[] { "easy", "medium", "hard" }) {
+            int perView = level.equals("easy") ? 5 : level.equals("medium") ? 20 : 100;
+            int numMines = Minesweeper.scaleMines(perView, rows, cols);
+            long[] latency = new long[seeds];
+            long candidates = 0;
+            int failed = 0;
+            for (int s = 0; s < seeds; s++) {
+                NoGuessGenerator gen = new NoGuessGenerator(rows, cols, numMines, 1000 + s);
+                boolean found = gen.generate();
+                if (!found)
+                    failed++;
+                latency[s] = gen.getNanos();
+                candidates += gen.getNumTried();
+                if (s < 5) {
+                    NoGuessGenerator again = new NoGuessGenerator(rows, cols, numMines, 1000 + s);
+                    if (again.generate() != found || again.getCandidate() != gen.getCandidate())
+                        throw new IllegalStateException("seed " + (1000 + s) + " was not reproducible");
+                }
+            }
+            Arrays.sort(latency);
+            StdOut.printf("%d x %d %-6s %5d mines: %d seeds, %.1f candidates tried, %d failed, "
+                          + "p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms\n",
+                          rows, cols, level, numMines, seeds, (double)candidates / seeds, failed,
+                          percentile(latency, 50) / 1e6, percentile(latency, 90) / 1e6,
+                          percentile(latency, 99) / 1e6, latency[seeds - 1] / 1e6);
+        }
+    }
+
+    // The p'th percentile of a sorted array, nearest rank.
+    static long percentile(long[] sorted, int p) {
+        int rank = (int)Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
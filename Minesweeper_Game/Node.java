@@ -10,6 +10,7 @@ public class Node {
     public int val;
     public Node next;
     public String username;
+    public BoardMetrics metrics; // null for scores saved before boards were measured
 
     public Node() {
         val = 0;
@@ -43,6 +44,29 @@ public class Node {
     recent = Recent;
     next = null;
     }
+    public Node(int v, String name, BoardMetrics m, boolean Recent){
+        val = v;
+        username = name;
+        metrics = m;
+        recent = Recent;
+        next = null;
+    }
+
+    /**
+     * Returns true if this score should be listed above the other one. Scores
+     * on measured boards rank by 3BV per second, fastest first, and above any
+     * unmeasured ones, which rank by time. Equal scores keep the order they
+     * were added in.
+     */
+    public boolean ranksAbove(Node other) {
+        if (metrics == null && other.metrics == null)
+            return val < other.val;
+        if (metrics == null || other.metrics == null)
+            return metrics != null;
+        double mine = metrics.get3BVPerSecond(val), theirs = other.metrics.get3BVPerSecond(other.val);
+        return mine > theirs || (mine == theirs && val < other.val);
+    }
+
     public void NodeRecentChange(int v, String name, int i){
         if (i == 0)
             this.recent = false;
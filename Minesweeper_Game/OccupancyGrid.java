@@ -0,0 +1,243 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  OccupancyGrid knows which monsters and bullets are on each
+ *  cell, so a collision is one lookup.
+ *----------------------------------------------------------------*/
+
+/**
+ * An <i>OccupancyGrid</i> keeps track of where the moving things of the
+ * secret game are: each entity, a monster or a bullet, is a number from 0 to
+ * the capacity, and sits on at most one cell. Each cell holds the heads of
+ * two linked lists, one of the monsters on it and one of the bullets,
+ * threaded through a next array indexed by entity, so any number of them
+ * can share a cell. Finding the first monster or bullet on a cell is one
+ * lookup, and putting an entity on a cell, moving it, or taking it off costs
+ * a step for each entity of its kind there, which is almost always none or
+ * one.
+ *
+ * A pool that moves all of its entities each turn takes them all off with
+ * removeAll() and puts them back. Because each kind has lists of its own,
+ * that empties each cell they were on with a single write, instead of
+ * unlinking them one at a time from scattered places in memory. The two
+ * heads cost 8 bytes a cell.
+ *
+ * It is the record of where monsters and bullets are. The Board asks it how
+ * many monsters are on a cell and whether a bullet is there when drawing,
+ * and the game asks it what has run into the player.
+ */
+public class OccupancyGrid {
+
+    /**
+     * The kinds of entity.
+     */
+    public static final byte MONSTER = 0, BULLET = 1;
+
+    // Marks the end of a list, or an entity that is on no cell.
+    private static final int NONE = -1;
+
+    private final int rows, cols;
+
+    // The first monster and the first bullet on each cell, or NONE, at
+    // 2 * cell + kind.
+    private final int[] head;
+
+    // For each entity: the one after it of its kind on its cell, the cell it
+    // is on (or NONE), and its kind.
+    private final int[] next, cell;
+    private final byte[] kind;
+
+    /**
+     * Make an empty grid for a rows by cols board, with room for entities
+     * numbered 0 to capacity - 1.
+     */
+    public OccupancyGrid(int rows, int cols, int capacity) {
+        this.rows = rows;
+        this.cols = cols;
+        head = new int[2 * rows * cols];
+        java.util.Arrays.fill(head, NONE);
+        next = new int[capacity];
+        cell = new int[capacity];
+        java.util.Arrays.fill(cell, NONE);
+        kind = new byte[capacity];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Put entity e, of the given kind, on a cell, moving it there if it is
+     * on another. Putting it on the cell it is on already does nothing.
+     */
+    public void put(int e, byte kind, int row, int col) {
+        int i = row * cols + col;
+        if (cell[e] == i && this.kind[e] == kind)
+            return;
+        if (cell[e] != NONE)
+            unlink(e);
+        this.kind[e] = kind;
+        link(e, i);
+    }
+
+    /**
+     * Take entity e off its cell, if it is on one.
+     */
+    public void remove(int e) {
+        if (cell[e] != NONE)
+            unlink(e);
+    }
+
+    /**
+     * Take entities from up to (but not including) to off their cells. They
+     * must be every entity of their kind on those cells, as they are when a
+     * pool takes off all of its own, since each cell is just emptied of
+     * their kind.
+     */
+    public void removeAll(int from, int to) {
+        for (int e = from; e < to; e++) {
+            if (cell[e] != NONE) {
+                head[2 * cell[e] + kind[e]] = NONE;
+                cell[e] = NONE;
+            }
+        }
+    }
+
+    /**
+     * Give entity from the number to instead, in place, so it stays on the
+     * same cell. Entity to must be on no cell. Used when a pool moves an
+     * entity to a new slot.
+     */
+    public void rename(int from, int to) {
+        int i = cell[from];
+        cell[to] = i;
+        kind[to] = kind[from];
+        cell[from] = NONE;
+        if (i == NONE)
+            return;
+        next[to] = next[from];
+        int h = 2 * i + kind[to];
+        if (head[h] == from) {
+            head[h] = to;
+        } else {
+            int p = head[h];
+            while (next[p] != from)
+                p = next[p];
+            next[p] = to;
+        }
+    }
+
+    /**
+     * Whether entity e is on the given cell.
+     */
+    public boolean isAt(int e, int row, int col) {
+        return cell[e] == row * cols + col;
+    }
+
+    /**
+     * Get the entity after e of its kind on its cell, or -1 if e is the
+     * last.
+     */
+    public int next(int e) {
+        return next[e];
+    }
+
+    public byte getKind(int e) {
+        return kind[e];
+    }
+
+    /**
+     * Get the first entity of the given kind on a cell, or -1 if there is
+     * none.
+     */
+    public int find(int row, int col, byte kind) {
+        return head[2 * (row * cols + col) + kind];
+    }
+
+    /**
+     * Count the entities of the given kind on a cell.
+     */
+    public int count(int row, int col, byte kind) {
+        int n = 0;
+        for (int e = head[2 * (row * cols + col) + kind]; e != NONE; e = next[e])
+            n++;
+        return n;
+    }
+
+    // Put e at the front of cell i's list of its kind.
+    private void link(int e, int i) {
+        int h = 2 * i + kind[e];
+        next[e] = head[h];
+        head[h] = e;
+        cell[e] = i;
+    }
+
+    // Take e out of its cell's list, finding the one before it, if any, by
+    // walking the list from its head.
+    private void unlink(int e) {
+        int h = 2 * cell[e] + kind[e];
+        if (head[h] == e) {
+            head[h] = next[e];
+        } else {
+            int p = head[h];
+            while (next[p] != e)
+                p = next[p];
+            next[p] = next[e];
+        }
+        cell[e] = NONE;
+    }
+
+    /**
+     * A main() function, for testing. It moves many entities around a small
+     * grid, so lots of them share cells, now and then taking them all off
+     * at once, and checks the lists against a plain count of where each one
+     * is.
+     */
+    public static void main(String args[]) {
+        int rows = 7, cols = 9, n = 500;
+        OccupancyGrid grid = new OccupancyGrid(rows, cols, 2 * n);
+        int[] at = new int[2 * n];
+        java.util.Arrays.fill(at, NONE);
+        java.util.Random random = new java.util.Random(1);
+        for (int step = 0; step < 200000; step++) {
+            int e = random.nextInt(n), r = random.nextInt(rows), c = random.nextInt(cols);
+            if (step % 50000 == 25000) {
+                grid.removeAll(0, n);
+                java.util.Arrays.fill(at, NONE);
+                continue;
+            }
+            switch (random.nextInt(4)) {
+            case 0:
+                grid.remove(e);
+                at[e] = NONE;
+                break;
+            case 1:
+                if (at[e + n] == NONE && at[e] != NONE) {
+                    grid.rename(e, e + n); // and back, as a pool would
+                    grid.rename(e + n, e);
+                }
+                break;
+            default:
+                grid.put(e, (byte)(e & 1), r, c);
+                at[e] = r * cols + c;
+            }
+        }
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                for (byte k = MONSTER; k <= BULLET; k++) {
+                    int expected = 0;
+                    for (int e = 0; e < n; e++)
+                        if (at[e] == r * cols + c && (e & 1) == k)
+                            expected++;
+                    if (grid.count(r, c, k) != expected || (grid.find(r, c, k) != NONE) != (expected > 0))
+                        throw new IllegalStateException("cell " + r + " " + c + " lost track of kind " + k);
+                }
+        StdOut.println("Every cell's list matches where its entities are");
+    }
+}
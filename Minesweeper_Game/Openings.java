@@ -0,0 +1,353 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Openings finds every opening of a board ahead of time, so a
+ *  click on a blank cell can reveal its opening straight away.
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+
+/**
+ * An <i>Openings</i> object is an index of the openings of a Board: the groups
+ * of blank cells (cells with no mine and no neighboring mines) that touch,
+ * including through diagonals. Clicking any blank cell of an opening reveals
+ * all of it, plus the numbered cells around it.
+ *
+ * The blank cells of each row are stored as runs, each a range of bit
+ * indexes from left to right. A run touches a run of the row above if their
+ * columns overlap once each is widened by one cell, so the openings are
+ * found by joining touching runs with a union-find, one row against the next.
+ * The runs of each opening are then listed together. An opening's cells,
+ * numbered border included, are exactly the cells from one row above to one
+ * row below each of its runs and one column wider on each side, so revealing
+ * it is a few whole-word ORs into the revealed bitset per run, and no cells
+ * have to be visited one at a time.
+ *
+ * A big opening is revealed on the fork-join pool, in bands of rows. Rows
+ * start on fresh words, so each band writes words no other band touches,
+ * and needs no locking; each keeps its own counts and hash changes, which
+ * are added up once every band is done.
+ *
+ * The index only describes the mines it was built from. Board throws it
+ * away whenever a mine is added.
+ */
+public class Openings {
+
+    /**
+     * The number of blank cells an opening needs before reveal() splits it
+     * into bands of BAND_ROWS rows.
+     */
+    public static final int PARALLEL_CELLS = 1 << 20, BAND_ROWS = 256;
+
+    // Each blank run, in row-major order, as the bit indexes of its ends.
+    private int[] runLeft, runRight;
+    private int numRuns;
+
+    // The opening each run belongs to.
+    private final int[] runOpening;
+
+    // The runs of opening g are openingRuns[openingStart[g]] up to (but not
+    // including) openingRuns[openingStart[g+1]].
+    private final int[] openingStart;
+    private final int[] openingRuns;
+
+    private final int stride;
+
+    // Used while the index is being built: the union-find forest over the
+    // runs, where each root is the lowest numbered run of its opening, and
+    // the runs of the row above that a new run might still touch.
+    private int[] parent;
+    private int prevFirst, prevEnd;
+
+    /**
+     * Find the openings of a board from its mines and neighbor counts.
+     */
+    public Openings(Board board) {
+        int rows = board.getRows();
+        stride = board.getStride();
+        runLeft = new int[Math.max(16, rows)];
+        runRight = new int[runLeft.length];
+        parent = new int[runLeft.length];
+
+        // Pull the runs out of each row a word of blank cells at a time. A
+        // run that reaches the end of a word is left open, in case it goes
+        // on into the next one.
+        for (int r = 0; r < rows; r++) {
+            int first = numRuns;
+            int base = r * stride;
+            int openLeft = -1;
+            for (int col0 = 0; col0 < stride; col0 += 64) {
+                long bits = board.blankBits(base + col0);
+                if (openLeft >= 0 && (bits & 1) == 0) {
+                    addRun(base, openLeft, col0 - 1);
+                    openLeft = -1;
+                }
+                while (bits != 0) {
+                    int s = Long.numberOfTrailingZeros(bits);
+                    long filled = bits | ((1L << s) - 1);
+                    int e = filled == -1L ? 64 : Long.numberOfTrailingZeros(~filled);
+                    int left = openLeft >= 0 ? openLeft : col0 + s;
+                    openLeft = -1;
+                    if (e == 64) {
+                        openLeft = left;
+                        break;
+                    }
+                    addRun(base, left, col0 + e - 1);
+                    bits &= -1L << e;
+                }
+            }
+            if (openLeft >= 0)
+                addRun(base, openLeft, stride - 1);
+            prevFirst = first;
+            prevEnd = numRuns;
+        }
+
+        // Number the openings by their roots, in order of their first run.
+        runOpening = new int[numRuns];
+        int numOpenings = 0;
+        for (int k = 0; k < numRuns; k++) {
+            int root = find(parent, k);
+            runOpening[k] = root == k ? numOpenings++ : runOpening[root];
+        }
+
+        // List each opening's runs together, counting sort style.
+        openingStart = new int[numOpenings + 1];
+        for (int k = 0; k < numRuns; k++)
+            openingStart[runOpening[k] + 1]++;
+        for (int g = 0; g < numOpenings; g++)
+            openingStart[g + 1] += openingStart[g];
+        openingRuns = new int[numRuns];
+        int[] next = Arrays.copyOf(openingStart, numOpenings);
+        for (int k = 0; k < numRuns; k++)
+            openingRuns[next[runOpening[k]]++] = k;
+
+        runLeft = Arrays.copyOf(runLeft, numRuns);
+        runRight = Arrays.copyOf(runRight, numRuns);
+        parent = null;
+    }
+
+    // Add the run of row base / stride from column left to column right, and
+    // join it to every run above whose columns are within one of it. Those
+    // runs come in order, so the scan picks up where the last one left off.
+    private void addRun(int base, int left, int right) {
+        if (numRuns == runLeft.length) {
+            runLeft = Arrays.copyOf(runLeft, 2 * numRuns);
+            runRight = Arrays.copyOf(runRight, 2 * numRuns);
+            parent = Arrays.copyOf(parent, 2 * numRuns);
+        }
+        runLeft[numRuns] = base + left;
+        runRight[numRuns] = base + right;
+        parent[numRuns] = numRuns;
+        int above = base - stride;
+        while (prevFirst < prevEnd && runRight[prevFirst] - above < left - 1)
+            prevFirst++;
+        for (int k = prevFirst; k < prevEnd && runLeft[k] - above <= right + 1; k++)
+            union(parent, k, numRuns);
+        numRuns++;
+    }
+
+    // Find the root of run k, halving the path on the way up.
+    private static int find(int[] parent, int k) {
+        while (parent[k] != k) {
+            parent[k] = parent[parent[k]];
+            k = parent[k];
+        }
+        return k;
+    }
+
+    // Join the openings of runs a and b, keeping the lower root.
+    private static void union(int[] parent, int a, int b) {
+        a = find(parent, a);
+        b = find(parent, b);
+        if (a < b)
+            parent[b] = a;
+        else if (b < a)
+            parent[a] = b;
+    }
+
+    /**
+     * Get the opening holding the blank cell at bit index i, or -1 if the
+     * cell is not blank.
+     */
+    public int openingAt(int i) {
+        // The last run starting at or before i.
+        int lo = 0, hi = numRuns - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runLeft[mid] <= i)
+                lo = mid + 1;
+            else
+                hi = mid - 1;
+        }
+        if (hi < 0 || runRight[hi] < i)
+            return -1;
+        return runOpening[hi];
+    }
+
+    /**
+     * Get the number of openings on the board.
+     */
+    public int getNumOpenings() {
+        return openingStart.length - 1;
+    }
+
+    /**
+     * Get the number of blank runs the openings are made of.
+     */
+    public int getNumRuns() {
+        return numRuns;
+    }
+
+    /**
+     * Get the number of blank cells in an opening, not counting its border.
+     */
+    public long getSize(int opening) {
+        long size = 0;
+        for (int k = openingStart[opening]; k < openingStart[opening + 1]; k++)
+            size += runRight[openingRuns[k]] - runLeft[openingRuns[k]] + 1;
+        return size;
+    }
+
+    // Reveal every cell of an opening and its border on the board, and return
+    // what changed. An opening of PARALLEL_CELLS or more is done in bands.
+    Board.Uncovered reveal(Board board, int opening) {
+        int first = openingStart[opening], end = openingStart[opening + 1];
+        Board.Uncovered total = new Board.Uncovered();
+        if (getSize(opening) < PARALLEL_CELLS) {
+            reveal(board, first, end, 0, board.getRows(), total);
+            return total;
+        }
+        int top = Math.max(0, runLeft[openingRuns[first]] / stride - 1);
+        int bottom = Math.min(board.getRows(), runLeft[openingRuns[end - 1]] / stride + 2);
+        Board.Uncovered[] bands = new Board.Uncovered[(bottom - top + BAND_ROWS - 1) / BAND_ROWS];
+        java.util.stream.IntStream.range(0, bands.length).parallel().forEach(b -> {
+                int from = top + b * BAND_ROWS, to = Math.min(bottom, from + BAND_ROWS);
+                bands[b] = new Board.Uncovered();
+                reveal(board, firstRunFrom(first, end, from - 1), end, from, to, bands[b]);
+            });
+        for (Board.Uncovered band : bands)
+            total.add(band);
+        return total;
+    }
+
+    // Reveal the cells of rows from up to (but not including) to that belong
+    // to the runs openingRuns[k] for k from first up to end, or to their
+    // borders. The runs are in row order, so this stops at the first run
+    // too far down to reach row to - 1.
+    private void reveal(Board board, int first, int end, int from, int to, Board.Uncovered into) {
+        int cols = board.getCols();
+        for (int k = first; k < end; k++) {
+            int run = openingRuns[k];
+            int r = runLeft[run] / stride;
+            if (r - 1 >= to)
+                break;
+            int lo = Math.max(0, runLeft[run] - r * stride - 1);
+            int hi = Math.min(cols - 1, runRight[run] - r * stride + 1);
+            for (int rr = Math.max(from, r - 1); rr <= Math.min(to - 1, r + 1); rr++)
+                board.showRange(rr * stride + lo, rr * stride + hi, into);
+        }
+    }
+
+    // The first k from first up to end whose run openingRuns[k] is on row
+    // or below it, or end if there is none.
+    private int firstRunFrom(int first, int end, int row) {
+        int lo = first, hi = end;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runLeft[openingRuns[mid]] / stride < row)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * A main() function, for testing. On random boards of many shapes, down
+     * to a single row or column, it plays the same random clicks and flags
+     * on two copies of a layout: one with its openings found, which reveals
+     * openings from the index, and one built a mine at a time, which has no
+     * index and uses the scanline flood. After every click the two must show
+     * exactly the same cells and flags, with the same counts and view hash.
+     * A last board has one opening big enough to be revealed in bands.
+     */
+    public static void main(String args[]) {
+        java.util.Random random = new java.util.Random(1);
+        int clicks = 0;
+        for (int t = 0; t < 400; t++) {
+            int rows, cols;
+            switch (t % 4) {
+            case 0:
+                rows = 1;
+                cols = 1 + random.nextInt(200);
+                break;
+            case 1:
+                rows = 1 + random.nextInt(200);
+                cols = 1;
+                break;
+            default:
+                rows = 1 + random.nextInt(60);
+                cols = 1 + random.nextInt(150);
+            }
+            int mines = random.nextInt(rows * cols / 5 + 1);
+            clicks += compare(rows, cols, mines, 40, random);
+        }
+        StdOut.printf("Openings matched the flood fill over %d clicks on 400 boards\n", clicks);
+
+        compare(1500, 1500, 2000, 20, random);
+        StdOut.println("A big opening revealed in bands matched the flood fill too");
+    }
+
+    // Play the same random clicks and flags on a board with an index and a
+    // copy without one, checking after each that they agree. Returns how
+    // many cells were clicked.
+    private static int compare(int rows, int cols, int mines, int moves, java.util.Random random) {
+        Board indexed = new Board(rows, cols);
+        indexed.deployMines(mines, new java.util.Random(random.nextLong()));
+        Board flooded = new Board(rows, cols);
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                if (indexed.isMine(r, c))
+                    flooded.makeMine(r, c);
+        if (indexed.getOpenings() == null || flooded.getOpenings() != null)
+            throw new IllegalStateException("only one copy should have its openings found");
+
+        // Flags go anywhere, on mines or not, so openings have some to take off.
+        for (int k = 0; k < rows * cols / 10; k++) {
+            int r = random.nextInt(rows), c = random.nextInt(cols);
+            indexed.makeFlag(r, c);
+            flooded.makeFlag(r, c);
+        }
+        int clicks = 0;
+        for (int move = 0; move < moves; move++) {
+            int r = random.nextInt(rows), c = random.nextInt(cols);
+            // Like the game, never click a mine or a flag.
+            if (indexed.isMine(r, c) || indexed.isFlag(r, c))
+                continue;
+            clicks++;
+            boolean a = indexed.reveal(r, c), b = flooded.reveal(r, c);
+            int opened = 0, flooding = 0;
+            if (a && indexed.coastIsClear(r, c)) {
+                opened = indexed.uncoverNeighboringBlanks(r, c);
+                flooding = flooded.uncoverNeighboringBlanks(r, c);
+            }
+            if (a != b || opened != flooding)
+                throw new IllegalStateException(rows + " x " + cols + ": click on " + r + " " + c
+                                                + " revealed " + opened + " cells, not " + flooding);
+            for (int rr = 0; rr < rows; rr++)
+                for (int cc = 0; cc < cols; cc++)
+                    if (indexed.isRevealed(rr, cc) != flooded.isRevealed(rr, cc)
+                        || indexed.isFlag(rr, cc) != flooded.isFlag(rr, cc))
+                        throw new IllegalStateException(rows + " x " + cols + ": after a click on " + r + " "
+                                                        + c + ", cell " + rr + " " + cc + " differs");
+            Counters x = indexed.getCounters(), y = flooded.getCounters();
+            if (x.getRevealed() != y.getRevealed() || x.getFlagged() != y.getFlagged()
+                || indexed.getZobrist().getViewHash() != flooded.getZobrist().getViewHash())
+                throw new IllegalStateException(rows + " x " + cols + ": the counts or hashes differ after a click on "
+                                                + r + " " + c);
+        }
+        return clicks;
+    }
+}
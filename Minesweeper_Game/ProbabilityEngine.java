@@ -0,0 +1,737 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  ProbabilityEngine works out the exact chance that each hidden
+ *  cell holds a mine, from what the player can see.
+ *
+ *  Example: java ProbabilityEngine        # times it on hard boards
+ *  Example: java ProbabilityEngine 60 90  # times it on one size
+ *----------------------------------------------------------------*/
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A <i>ProbabilityEngine</i> gives the chance that each hidden cell of a
+ * Snapshot is a mine, counting every layout of mines that fits the numbers
+ * and the total number of mines as equally likely.
+ *
+ * It first runs the Solver, so cells that can be proved safe or mines are
+ * settled. The rest of the hidden cells next to a number make up the
+ * frontier, and the numbers around them are the constraints. The frontier
+ * splits into components that share no constraints, and each component is
+ * enumerated on its own with a backtracking search, which counts for every k
+ * how many ways it can hold k mines, and how many of those put a mine in
+ * each of its cells. The components are independent, so they are enumerated
+ * in parallel on the fork-join pool.
+ *
+ * The hidden cells away from the frontier (the interior) are free: if the
+ * frontier holds K mines, they can be placed C(U, R - K) ways, where U is
+ * the number of interior cells and R the mines left. The component counts
+ * are combined by convolution, weighted by these binomials, which come from
+ * a cached table of log factorials so that huge boards do not overflow.
+ *
+ * Components too tangled to enumerate one layout at a time are handed to a
+ * BacktrackSolver, which counts them with a transposition table. Components
+ * with more than BacktrackSolver.MAX_VARS cells are not counted at all, as
+ * no search could finish them; they make the answer inexact, and a caller
+ * that wants better should use a MonteCarloEstimator, as the HintEngine
+ * does.
+ *
+ * The search stops when the time budget runs out. The components it did not
+ * finish are then treated as if they were interior, so the answer is only an
+ * estimate, and isExact() returns false. The budget is checked in every pass
+ * over the board too: the Solver, settling the known cells, building the
+ * frontier and combining the counts. If it runs out in one of those, every
+ * undetermined cell gets the same chance, the mines left over the cells
+ * left. That chance comes from counts the Snapshot keeps, and cells not
+ * reached in time are only looked up when asked for, so giving up costs
+ * nothing more. The frontier's arrays are kept from one compute() to the
+ * next and only grown when a bigger frontier needs them, so a big board
+ * costs little more than its frontier.
+ *
+ * The counts are combined as running convolutions, each cut off at the
+ * number of mines left, as the frontier can hold no more. Only every
+ * sqrt(C)'th of the C running convolutions is kept; the walk back through
+ * the components works out the ones between again, a block at a time. So
+ * the memory grows with sqrt(C) rather than C, for twice the convolving.
+ */
+public class ProbabilityEngine {
+
+    /**
+     * Default time budget, about one frame.
+     */
+    public static final long FRAME_NANOS = 16_000_000L;
+
+    // Marks a cell whose probability is not worked out yet.
+    private static final double UNSET = -1.0;
+
+    private final Solver solver = new Solver();
+
+    private int rows, cols;
+
+    // Chance of a mine in each cell, indexed row * cols + col. NaN for
+    // revealed cells. Only rows above settledRows are filled in; the rest are
+    // worked out from the snapshot when asked for. Cells left UNSET have the
+    // chance in uniform.
+    private double[] probability = new double[0];
+    private Snapshot snap;
+    private int settledRows;
+    private double uniform;
+
+    private boolean exact;
+    private int numComponents, largestComponent;
+
+    // log(n!) for n up to logFactorial.length - 1, grown as needed.
+    private static double[] logFactorial = { 0.0 };
+
+    // The frontier of the current snapshot. Variables are frontier cells and
+    // constraints are the numbers around them, linked both ways in CSR form.
+    // The arrays are kept between calls and only ever grown, so they can be
+    // longer than needed.
+    private int numVars, numCons;
+    private int[] varCell = new int[0];                             // cell of each variable
+    private int[] varConStart = new int[1], varCons = new int[0];   // constraints of each variable
+    private int[] consVarStart = new int[1], consVars = new int[0]; // variables of each constraint
+    private int[] consNeed = new int[0], consFree = new int[0];     // mines needed and variables unset
+    private int[] varValue = new int[0];                            // 0 or 1 during the search
+
+    // Scratch space for building the frontier: the variable of each cell,
+    // or -1, which is put back to all -1 after each build, the number of
+    // variables of each constraint, and where each variable's next
+    // constraint goes.
+    private int[] varOf = new int[0], consCount = new int[0], varNext = new int[0];
+
+    // The variables of each component, in search order, in CSR form, and
+    // scratch space for finding them.
+    private int[] compStart = new int[1], compVars = new int[0], compOf = new int[0];
+    private boolean[] consSeen = new boolean[0];
+
+    // The place of each variable in its component, for the BacktrackSolver.
+    private int[] local = new int[0];
+
+    // Results for each component: ways[c][k] is the number of ways it can
+    // hold k mines, and hits[c][p * (n + 1) + k] the number of those that put
+    // a mine on its p'th variable. Scaled by a common factor per component.
+    private double[][] ways, hits;
+    private boolean[] finished;
+
+    // Read by the search threads, and set early by cancel().
+    private volatile long deadline;
+
+    // Components with more variables than this are counted by the
+    // BacktrackSolver, one at a time, after the small ones are done. It is
+    // made when first needed.
+    private volatile BacktrackSolver backtrack;
+    private int backtrackAbove = 20;
+
+    /**
+     * Work out the mine probabilities for a snapshot within the default time
+     * budget. Returns true if they are exact.
+     */
+    public boolean compute(Snapshot snap) {
+        return compute(snap, FRAME_NANOS);
+    }
+
+    /**
+     * Work out the mine probabilities for a snapshot, spending about
+     * budgetNanos at most, or with no limit if it is Long.MAX_VALUE. Returns
+     * true if they are exact. With no limit the answer only depends on the
+     * snapshot.
+     */
+    public boolean compute(Snapshot snap, long budgetNanos) {
+        deadline = budgetNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+        this.snap = snap;
+        rows = snap.getRows();
+        cols = snap.getCols();
+        if (probability.length != rows * cols)
+            probability = new double[rows * cols];
+        settledRows = 0;
+        numVars = numComponents = largestComponent = 0;
+        solver.solve(snap, deadline);
+
+        // What is left, from the snapshot's counts and what the solver found.
+        int minesLeft = snap.getMines() - snap.getShownMines() - solver.getNumMines();
+        int undetermined = snap.getHidden() - solver.getNumMines() - solver.getNumSafe();
+
+        // Settle what is already known, as far as there is time for.
+        while (settledRows < rows && System.nanoTime() <= deadline) {
+            int r = settledRows++;
+            for (int c = 0; c < cols; c++)
+                probability[r * cols + c] = settled(r, c);
+        }
+        if (settledRows < rows || !buildFrontier(snap)) {
+            guess(minesLeft, undetermined);
+            return exact;
+        }
+        findComponents();
+
+        // Enumerate the components. Ones too big for even the
+        // BacktrackSolver are left unfinished.
+        ways = new double[numComponents][];
+        hits = new double[numComponents][];
+        finished = new boolean[numComponents];
+        IntStream.range(0, numComponents).parallel().forEach(c -> {
+                if (compStart[c + 1] - compStart[c] <= BacktrackSolver.MAX_VARS && !usesBacktrack(c))
+                    enumerate(c);
+            });
+        for (int c = 0; c < numComponents; c++)
+            if (usesBacktrack(c))
+                countWithTable(c);
+
+        // Unfinished components count as interior.
+        exact = true;
+        int interior = undetermined;
+        for (int c = 0; c < numComponents; c++) {
+            if (finished[c])
+                interior -= compStart[c + 1] - compStart[c];
+            else
+                exact = false;
+        }
+        if (!combine(minesLeft, interior))
+            guess(minesLeft, undetermined);
+        return exact;
+    }
+
+    // What is known of a cell before the frontier is looked at: NaN if it
+    // is revealed, 1 or 0 if it is a mine or proved safe, else UNSET.
+    private double settled(int row, int col) {
+        byte code = snap.get(row, col);
+        if (code == Snapshot.MINE || solver.isMine(row, col))
+            return 1.0;
+        else if (code >= 0)
+            return Double.NaN;
+        else if (solver.isSafe(row, col))
+            return 0.0;
+        return UNSET;
+    }
+
+    // Give up on the frontier, and give every undetermined cell the same
+    // chance of a mine.
+    private void guess(int minesLeft, int undetermined) {
+        exact = false;
+        uniform = undetermined > 0 ? Math.min(1.0, Math.max(0.0, (double)minesLeft / undetermined)) : 0.0;
+    }
+
+    // The given array, or a longer copy of it if it has fewer than n
+    // entries.
+    private static int[] grow(int[] a, int n) {
+        return n <= a.length ? a : Arrays.copyOf(a, Math.max(n, 2 * a.length));
+    }
+
+    // Collect the undetermined cells next to a number as variables, and the
+    // numbers touching them as constraints. Returns false if the time ran
+    // out first.
+    private boolean buildFrontier(Snapshot snap) {
+        int cells = rows * cols;
+        if (varOf.length != cells) {
+            varOf = new int[cells];
+            Arrays.fill(varOf, -1);
+        }
+        numVars = 0;
+        numCons = 0;
+        int links = 0;
+        boolean inTime = true;
+        for (int r = 0; r < rows && inTime; r++) {
+            for (int c = 0; c < cols; c++) {
+                byte code = snap.get(r, c);
+                if (code < 0)
+                    continue;
+                consVars = grow(consVars, links + 8);
+                int need = code, count = 0;
+                for (int dr = -1; dr <= 1; dr++)
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int rr = r + dr, cc = c + dc;
+                        if ((dr == 0 && dc == 0) || rr < 0 || rr >= rows || cc < 0 || cc >= cols)
+                            continue;
+                        int i = rr * cols + cc;
+                        if (probability[i] == 1.0) {
+                            need--;
+                        } else if (probability[i] == UNSET) {
+                            if (varOf[i] < 0) {
+                                varCell = grow(varCell, numVars + 1);
+                                varOf[i] = numVars;
+                                varCell[numVars++] = i;
+                            }
+                            consVars[links + count++] = varOf[i];
+                        }
+                    }
+                if (count == 0)
+                    continue;
+                consNeed = grow(consNeed, numCons + 1);
+                consCount = grow(consCount, numCons + 1);
+                consNeed[numCons] = need;
+                consCount[numCons++] = count;
+                links += count;
+            }
+            inTime = System.nanoTime() <= deadline;
+        }
+
+        // Put the cell map back for next time, touching only the frontier.
+        for (int v = 0; v < numVars; v++)
+            varOf[varCell[v]] = -1;
+        if (!inTime) {
+            numVars = numCons = 0;
+            return false;
+        }
+
+        // Turn the constraint-to-variable lists around.
+        varConStart = grow(varConStart, numVars + 1);
+        Arrays.fill(varConStart, 0, numVars + 1, 0);
+        for (int k = 0; k < links; k++)
+            varConStart[consVars[k] + 1]++;
+        for (int v = 0; v < numVars; v++)
+            varConStart[v + 1] += varConStart[v];
+        varCons = grow(varCons, links);
+        int[] next = varNext = grow(varNext, numVars);
+        System.arraycopy(varConStart, 0, next, 0, numVars);
+        consVarStart = grow(consVarStart, numCons + 1);
+        for (int con = 0, k = 0; con < numCons; con++) {
+            consVarStart[con + 1] = consVarStart[con] + consCount[con];
+            for (int j = 0; j < consCount[con]; j++, k++)
+                varCons[next[consVars[k]]++] = con;
+        }
+        consFree = grow(consFree, numCons);
+        System.arraycopy(consCount, 0, consFree, 0, numCons);
+        varValue = grow(varValue, numVars);
+        Arrays.fill(varValue, 0, numVars, 0);
+        return true;
+    }
+
+    // Split the variables into components that share a constraint, each
+    // listed in breadth-first order so constraints fill up early.
+    private void findComponents() {
+        int[] comp = compOf = grow(compOf, numVars);
+        Arrays.fill(comp, 0, numVars, -1);
+        if (consSeen.length < numCons)
+            consSeen = new boolean[Math.max(numCons, 2 * consSeen.length)];
+        Arrays.fill(consSeen, 0, numCons, false);
+        compVars = grow(compVars, numVars);
+        IntStack starts = new IntStack();
+        int n = 0;
+        numComponents = 0;
+        largestComponent = 0;
+        for (int v0 = 0; v0 < numVars; v0++) {
+            if (comp[v0] >= 0)
+                continue;
+            starts.push(n);
+            int head = n;
+            comp[v0] = numComponents;
+            compVars[n++] = v0;
+            while (head < n) {
+                int v = compVars[head++];
+                for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+                    int con = varCons[k];
+                    if (consSeen[con])
+                        continue;
+                    consSeen[con] = true;
+                    for (int j = consVarStart[con]; j < consVarStart[con + 1]; j++) {
+                        int w = consVars[j];
+                        if (comp[w] < 0) {
+                            comp[w] = numComponents;
+                            compVars[n++] = w;
+                        }
+                    }
+                }
+            }
+            largestComponent = Math.max(largestComponent, n - starts.get(numComponents));
+            numComponents++;
+        }
+        compStart = grow(compStart, numComponents + 1);
+        for (int c = 0; c < numComponents; c++)
+            compStart[c] = starts.get(c);
+        compStart[numComponents] = numVars;
+    }
+
+    // Count the layouts of one component. Components share no variables or
+    // constraints, so they can be run at the same time.
+    private void enumerate(int c) {
+        int from = compStart[c], n = compStart[c + 1] - from;
+        double[] w = new double[n + 1];
+        double[] h = new double[n * (n + 1)];
+        Search s = new Search(from, n, w, h);
+        if (s.run(0, 0)) {
+            ways[c] = w;
+            hits[c] = h;
+            finished[c] = true;
+        }
+    }
+
+    private boolean usesBacktrack(int c) {
+        int n = compStart[c + 1] - compStart[c];
+        return n > backtrackAbove && n <= BacktrackSolver.MAX_VARS;
+    }
+
+    // Count the layouts of one component with the BacktrackSolver. Its
+    // variables are numbered by their place in the component, which is in
+    // breadth-first order, and only its own constraints are passed on.
+    private void countWithTable(int c) {
+        if (backtrack == null)
+            backtrack = new BacktrackSolver();
+        int from = compStart[c], n = compStart[c + 1] - from;
+        local = grow(local, numVars);
+        for (int p = 0; p < n; p++)
+            local[compVars[from + p]] = p;
+
+        // findComponents() left consSeen set for every constraint, so this
+        // clears it for the component's own ones as they are collected.
+        IntStack cons = new IntStack();
+        for (int p = 0; p < n; p++) {
+            int v = compVars[from + p];
+            for (int k = varConStart[v]; k < varConStart[v + 1]; k++)
+                if (consSeen[varCons[k]]) {
+                    consSeen[varCons[k]] = false;
+                    cons.push(varCons[k]);
+                }
+        }
+        int m = cons.size();
+        int[] start = new int[m + 1], need = new int[m];
+        for (int j = 0; j < m; j++) {
+            int con = cons.get(j);
+            need[j] = consNeed[con];
+            start[j + 1] = start[j] + consVarStart[con + 1] - consVarStart[con];
+        }
+        int[] vars = new int[start[m]];
+        for (int j = 0, k = 0; j < m; j++)
+            for (int q = consVarStart[cons.get(j)]; q < consVarStart[cons.get(j) + 1]; q++)
+                vars[k++] = local[consVars[q]];
+
+        double[] w = new double[n + 1];
+        double[] h = new double[n * (n + 1)];
+        backtrack.load(n, m, start, vars, need);
+        if (backtrack.count(w, h, deadline)) {
+            ways[c] = w;
+            hits[c] = h;
+            finished[c] = true;
+        }
+    }
+
+    /**
+     * Use the given BacktrackSolver for components with more than the given
+     * number of cells. A null solver means a new one is made when needed.
+     * Passing Integer.MAX_VALUE turns it off.
+     */
+    public void setBacktrackSolver(BacktrackSolver solver, int above) {
+        backtrack = solver;
+        backtrackAbove = above;
+    }
+
+    /**
+     * Make a compute() running on another thread stop soon, as if its time
+     * had run out. Its answer will not be exact.
+     */
+    public void cancel() {
+        deadline = Long.MIN_VALUE;
+        BacktrackSolver b = backtrack;
+        if (b != null)
+            b.cancel();
+    }
+
+    /**
+     * Get the BacktrackSolver used for big components, or null if there has
+     * not been one yet.
+     */
+    public BacktrackSolver getBacktrackSolver() {
+        return backtrack;
+    }
+
+    // One component's backtracking search.
+    private class Search {
+        final int from, n;
+        final double[] w, h;
+        long nodes = 0;
+
+        Search(int from, int n, double[] w, double[] h) {
+            this.from = from;
+            this.n = n;
+            this.w = w;
+            this.h = h;
+        }
+
+        // Try both values for the p'th variable. Returns false if the time
+        // ran out.
+        boolean run(int p, int mines) {
+            if ((++nodes & 0xFFF) == 0 && System.nanoTime() > deadline)
+                return false;
+            if (p == n) {
+                w[mines]++;
+                for (int q = 0; q < n; q++)
+                    if (varValue[compVars[from + q]] == 1)
+                        h[q * (n + 1) + mines]++;
+                return true;
+            }
+            int v = compVars[from + p];
+            for (int x = 0; x <= 1; x++) {
+                if (set(v, x) && !run(p + 1, mines + x)) {
+                    unset(v, x);
+                    return false;
+                }
+                unset(v, x);
+            }
+            return true;
+        }
+
+        // Give variable v the value x. Returns false if some constraint can
+        // no longer be met.
+        boolean set(int v, int x) {
+            varValue[v] = x;
+            boolean ok = true;
+            for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+                int con = varCons[k];
+                consNeed[con] -= x;
+                consFree[con]--;
+                if (consNeed[con] < 0 || consNeed[con] > consFree[con])
+                    ok = false;
+            }
+            return ok;
+        }
+
+        void unset(int v, int x) {
+            varValue[v] = 0;
+            for (int k = varConStart[v]; k < varConStart[v + 1]; k++) {
+                int con = varCons[k];
+                consNeed[con] += x;
+                consFree[con]++;
+            }
+        }
+    }
+
+    // Combine the component counts with the ways to fill the interior, and
+    // set every probability that is not settled yet. Returns false, having
+    // set nothing, if the time runs out while working out the weights of the
+    // frontier; past that, components not reached in time are left for the
+    // interior's chance.
+    private boolean combine(int minesLeft, int interior) {
+        // The running convolution of the counts of the finished components
+        // ahead of c, scaled so its biggest entry is 1, kept for every c that
+        // is a multiple of step.
+        int step = Math.max(1, (int)Math.ceil(Math.sqrt(numComponents)));
+        double[][] checkpoint = new double[(numComponents + step - 1) / step][];
+        double[] frontier = { 1.0 };
+        for (int c = 0; c < numComponents; c++) {
+            if (c % step == 0)
+                checkpoint[c / step] = frontier;
+            frontier = advance(frontier, c, minesLeft);
+            if (System.nanoTime() > deadline)
+                return false;
+        }
+
+        // fill[m] is the relative number of ways to place the rest of the
+        // mines in the interior when the frontier holds m.
+        int maxK = frontier.length - 1;
+        double[] fill = new double[maxK + 1];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m <= maxK; m++)
+            best = Math.max(best, logChoose(interior, minesLeft - m));
+        for (int m = 0; m <= maxK; m++)
+            fill[m] = Math.exp(logChoose(interior, minesLeft - m) - best);
+
+        // The interior shares whatever mines the frontier leaves.
+        double z = 0, expected = 0;
+        for (int m = 0; m < frontier.length; m++) {
+            double weight = frontier[m] * fill[m];
+            z += weight;
+            expected += weight * (minesLeft - m);
+        }
+        uniform = interior > 0 && z > 0 ? expected / z / interior : 0.0;
+
+        // Walk back through the components a block at a time, keeping
+        // after[m], the weight of everything behind c when m mines are
+        // already placed ahead of it. The running convolutions of a block
+        // are worked out again from its checkpoint.
+        double[] after = fill;
+        double[][] before = new double[step][];
+        for (int b = checkpoint.length - 1; b >= 0; b--) {
+            int first = b * step, last = Math.min(numComponents, first + step);
+            before[0] = checkpoint[b];
+            for (int c = first + 1; c < last; c++)
+                before[c - first] = advance(before[c - first - 1], c - 1, minesLeft);
+            for (int c = last - 1; c >= first; c--) {
+                if (!finished[c])
+                    continue;
+                if (System.nanoTime() > deadline) {
+                    exact = false;
+                    return true;
+                }
+                int n = ways[c].length - 1;
+                double[] ahead = before[c - first];
+                // g[k]: the weight of c holding k mines.
+                double[] g = new double[n + 1];
+                for (int k = 0; k <= n; k++)
+                    for (int m = 0; m < ahead.length; m++)
+                        if (m + k < after.length)
+                            g[k] += ahead[m] * after[m + k];
+                double total = 0;
+                for (int k = 0; k <= n; k++)
+                    total += ways[c][k] * g[k];
+                for (int q = 0; q < n; q++) {
+                    double mine = 0;
+                    for (int k = 0; k <= n; k++)
+                        mine += hits[c][q * (n + 1) + k] * g[k];
+                    probability[varCell[compVars[compStart[c] + q]]] = total > 0 ? mine / total : 0.0;
+                }
+                after = normalize(correlate(ways[c], after, ahead.length));
+            }
+        }
+        return true;
+    }
+
+    // The running convolution past component c, given the one ahead of it,
+    // cut off at cap mines.
+    private double[] advance(double[] ahead, int c, int cap) {
+        return finished[c] ? normalize(convolve(ahead, ways[c], cap + 1)) : ahead;
+    }
+
+    // The convolution of a and b, cut off after the first limit entries.
+    private static double[] convolve(double[] a, double[] b, int limit) {
+        double[] out = new double[Math.max(1, Math.min(limit, a.length + b.length - 1))];
+        for (int i = 0; i < a.length && i < out.length; i++)
+            if (a[i] != 0)
+                for (int j = 0; j < b.length && i + j < out.length; j++)
+                    out[i + j] += a[i] * b[j];
+        return out;
+    }
+
+    // out[m] = sum over k of w[k] * after[m + k], for m below length.
+    private static double[] correlate(double[] w, double[] after, int length) {
+        double[] out = new double[length];
+        for (int m = 0; m < length; m++)
+            for (int k = 0; k < w.length && m + k < after.length; k++)
+                out[m] += w[k] * after[m + k];
+        return out;
+    }
+
+    // Scale an array so its biggest entry is 1. Only ratios matter here.
+    private static double[] normalize(double[] a) {
+        double max = 0;
+        for (double x : a)
+            max = Math.max(max, x);
+        if (max > 0)
+            for (int i = 0; i < a.length; i++)
+                a[i] /= max;
+        return a;
+    }
+
+    // log C(n, k), or minus infinity if k is out of range.
+    static double logChoose(int n, int k) {
+        if (k < 0 || k > n)
+            return Double.NEGATIVE_INFINITY;
+        double[] table = logFactorials(n);
+        return table[n] - table[k] - table[n - k];
+    }
+
+    // The cached table of log factorials, grown to reach n if needed.
+    private static synchronized double[] logFactorials(int n) {
+        if (n >= logFactorial.length) {
+            int old = logFactorial.length;
+            double[] table = Arrays.copyOf(logFactorial, Math.max(n + 1, 2 * old));
+            for (int i = old; i < table.length; i++)
+                table[i] = table[i - 1] + Math.log(i);
+            logFactorial = table;
+        }
+        return logFactorial;
+    }
+
+    /**
+     * Get the chance that a cell is a mine, from the last compute(). It is
+     * NaN for revealed cells, 0 or 1 for cells that are certain. The
+     * snapshot given to compute() must not have changed since.
+     */
+    public double getProbability(int row, int col) {
+        double p = row < settledRows ? probability[row * cols + col] : settled(row, col);
+        return p == UNSET ? uniform : p;
+    }
+
+    /**
+     * Returns true if the last compute() finished every component in time.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Get the number of frontier components in the last compute().
+     */
+    public int getNumComponents() {
+        return numComponents;
+    }
+
+    /**
+     * Get the number of cells in the biggest frontier component in the last
+     * compute().
+     */
+    public int getLargestComponent() {
+        return largestComponent;
+    }
+
+    /**
+     * A main() function, for testing. It plays games by always revealing the
+     * cell least likely to be a mine, and times every compute(). It also
+     * keeps track of how often the cells it says are likely mines really are,
+     * which should match the probabilities.
+     */
+    public static void main(String args[]) {
+        int rows = args.length == 2 ? Integer.parseInt(args[0]) : Game.VIEW_ROWS;
+        int cols = args.length == 2 ? Integer.parseInt(args[1]) : Game.VIEW_COLS;
+        int numMines = Minesweeper.scaleMines(100, rows, cols);
+        int games = Math.max(1, 200 * 600 / (rows * cols));
+
+        ProbabilityEngine engine = new ProbabilityEngine();
+        long computes = 0, totalNanos = 0, worstNanos = 0, inexact = 0, wins = 0;
+        // Calibration: predicted and actual mines, in 10 buckets.
+        double[] predicted = new double[10];
+        long[] actual = new long[10], seen = new long[10];
+        for (int g = 0; g < games; g++) {
+            Board board = new Board(rows, cols);
+            board.deployMines(numMines, new java.util.Random(g));
+            Snapshot snap = new Snapshot(rows, cols);
+            while (true) {
+                snap.update(board);
+                long start = System.nanoTime();
+                if (!engine.compute(snap))
+                    inexact++;
+                long nanos = System.nanoTime() - start;
+                computes++;
+                totalNanos += nanos;
+                worstNanos = Math.max(worstNanos, nanos);
+
+                int pick = -1;
+                double lowest = 2.0;
+                for (int i = 0; i < rows * cols; i++) {
+                    double p = engine.getProbability(i / cols, i % cols);
+                    if (Double.isNaN(p) || board.isRevealed(i / cols, i % cols))
+                        continue;
+                    int bucket = Math.min(9, (int)(p * 10));
+                    predicted[bucket] += p;
+                    seen[bucket]++;
+                    if (board.isMine(i / cols, i % cols))
+                        actual[bucket]++;
+                    if (p < lowest) {
+                        lowest = p;
+                        pick = i;
+                    }
+                }
+                int r = pick / cols, c = pick % cols;
+                if (board.isMine(r, c))
+                    break;
+                board.reveal(r, c);
+                if (board.coastIsClear(r, c))
+                    board.uncoverNeighboringBlanks(r, c);
+                if (board.getCounters().getSafeCellsRemaining() == 0) {
+                    wins++;
+                    break;
+                }
+            }
+        }
+        StdOut.printf("%d x %d, %d mines: %d games, %d wins, %d computes, mean %.3f ms, worst %.3f ms, %d not exact\n",
+                      rows, cols, numMines, games, wins, computes,
+                      totalNanos / 1e6 / computes, worstNanos / 1e6, inexact);
+        for (int b = 0; b < 10; b++)
+            if (seen[b] > 0)
+                StdOut.printf("  p in [%.1f, %.1f): predicted %.3f, actual %.3f, %d cells\n",
+                              b / 10.0, (b + 1) / 10.0, predicted[b] / seen[b],
+                              (double)actual[b] / seen[b], seen[b]);
+    }
+}
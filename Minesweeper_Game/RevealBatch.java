@@ -0,0 +1,107 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  RevealBatch is a list of cells to reveal all at once, and what
+ *  happened when they were.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>RevealBatch</i> holds cells to be revealed together by
+ * Minefield.reveal(RevealBatch), like the neighbors of a number when the
+ * player chords it. The minefield reveals every cell in the batch that is
+ * hidden and has no flag, uncovers the opening around each blank one, and
+ * updates its counters once for the lot. Afterwards the batch says how many
+ * cells were revealed in all and which mine, if any, was set off, so the
+ * game can check for a win or a loss and repaint once.
+ *
+ * A batch can be cleared and reused.
+ */
+public class RevealBatch {
+
+    // The cells to reveal, as row and column pairs.
+    private final IntStack cells = new IntStack(16);
+
+    private int revealed;
+    private boolean hitMine;
+    private int mineRow, mineCol;
+
+    /**
+     * Empty the batch and forget the results of the last reveal.
+     */
+    public void clear() {
+        cells.clear();
+        revealed = 0;
+        hitMine = false;
+    }
+
+    /**
+     * Add a cell to reveal.
+     */
+    public void add(int row, int col) {
+        cells.push(row);
+        cells.push(col);
+    }
+
+    /**
+     * Get the number of cells in the batch.
+     */
+    public int size() {
+        return cells.size() / 2;
+    }
+
+    public int getRow(int k) {
+        return cells.get(2 * k);
+    }
+
+    public int getCol(int k) {
+        return cells.get(2 * k + 1);
+    }
+
+    /**
+     * Record how many cells revealing the batch revealed. Called by the
+     * minefield.
+     */
+    void setRevealed(int revealed) {
+        this.revealed = revealed;
+    }
+
+    /**
+     * Record that a mine was revealed, if it is the first. Called by the
+     * minefield.
+     */
+    void mineHit(int row, int col) {
+        if (!hitMine) {
+            hitMine = true;
+            mineRow = row;
+            mineCol = col;
+        }
+    }
+
+    /**
+     * Get the number of cells the batch revealed, openings included.
+     */
+    public int getRevealed() {
+        return revealed;
+    }
+
+    /**
+     * Returns true if the batch revealed a mine.
+     */
+    public boolean hitMine() {
+        return hitMine;
+    }
+
+    /**
+     * Get the row and column of the first mine the batch revealed. Only
+     * meaningful if hitMine() is true.
+     */
+    public int getMineRow() {
+        return mineRow;
+    }
+
+    public int getMineCol() {
+        return mineCol;
+    }
+}
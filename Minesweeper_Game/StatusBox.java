@@ -60,6 +60,19 @@ public class StatusBox extends Widget {
         // Draw the labels in plain font, black
         canvas.setFont(Canvas.DEFAULT_FONT);
         canvas.setPenColor(Canvas.BLACK);
+        if(game.isEndless()){
+            // An endless board has no mine or cell totals, so show how far
+            // the player has got and how much of the board is in memory.
+            canvas.text(x + 60, y + 15, "Revealed");
+            canvas.text(x + 160, y + 15, "Chunks");
+            canvas.setFont(Canvas.BOLD_FONT);
+            canvas.setFont(24);
+            canvas.setPenColor(Canvas.DARK_BLUE);
+            canvas.text(x + 60, y + 45, "" + game.getNumRevealed());
+            canvas.setPenColor(Canvas.DARK_GREEN);
+            canvas.text(x + 160, y + 45, "" + game.getNumChunks());
+            return;
+        }
         if(!game.Secret){
             canvas.text(x + 40, y + 15, "Mines");
             canvas.text(x + 160, y + 15, "Cells");
@@ -69,30 +82,37 @@ public class StatusBox extends Widget {
             canvas.text(x + 170, y + 15, "Cells");
         }
 
+        // The totals are kept up to date by the board, so these are O(1).
+        int minesDeployed = game.getNumMinesDeployed();
+        int safeLeft = game.getNumSafeCellsRemaining();
+
         // Draw the number of mines in large blue bold font.
         canvas.setFont(Canvas.BOLD_FONT);
         canvas.setFont(24);
         canvas.setPenColor(Canvas.DARK_BLUE);
         if(!game.Secret)
-            canvas.text(x+40, y+45, "" + game.getNumMinesDeployed());
+            canvas.text(x+40, y+45, "" + minesDeployed);
         else
-            canvas.text(x+30, y+45, "" + game.getNumMinesDeployed());
-        int RemainingCells = ((game.getNumCellsRemaining() - game.getNumMinesDeployed()));
-        // Here I added dynamic colors.
-        if(RemainingCells > 400 - game.getNumMinesDeployed())
-            canvas.setPenColor(new Color (RemainingCells - (400 - game.getNumMinesDeployed()) + 55 , 0, 0));
-        else if(RemainingCells > 200 - game.getNumMinesDeployed())
-            canvas.setPenColor(new Color (0, 0, RemainingCells - (200 - game.getNumMinesDeployed()) + 55));
+            canvas.text(x+30, y+45, "" + minesDeployed);
+        // Here I added dynamic colors. The colors are picked as if the board
+        // had the classic 600 cells, so bigger boards fade the same way.
+        double scale = 600.0 / game.getNumCells();
+        int RemainingCells = (int)(safeLeft * scale);
+        int Mines = (int)(minesDeployed * scale);
+        if(RemainingCells > 400 - Mines)
+            canvas.setPenColor(new Color (Math.min(255, RemainingCells - (400 - Mines) + 55) , 0, 0));
+        else if(RemainingCells > 200 - Mines)
+            canvas.setPenColor(new Color (0, 0, RemainingCells - (200 - Mines) + 55));
         else
-            canvas.setPenColor(new Color (0, Math.abs(RemainingCells + game.getNumMinesDeployed() + 55 - 255) , 0));
+            canvas.setPenColor(new Color (0, Math.min(255, Math.abs(RemainingCells + Mines + 55 - 255)) , 0));
             
         if(!game.Secret)
-            canvas.text(x+160, y+45, "" + (game.getNumCellsRemaining() -game.getNumMinesDeployed()));//I altered this to display cells - mines because I felt this interface makes more sense.
+            canvas.text(x+160, y+45, "" + safeLeft);//I altered this to display cells - mines because I felt this interface makes more sense.
         else
-            canvas.text(x+170, y+45, "" + (game.getNumCellsRemaining() -game.getNumMinesDeployed()));
+            canvas.text(x+170, y+45, "" + safeLeft);
         if(game.Secret){
             canvas.setPenColor(Canvas.BLACK);
-            canvas.text(x + 100, y+45, Integer.toString(Math.abs(game.getNumDeadMonsters() - 101)));
+            canvas.text(x + 100, y+45, Integer.toString(game.getNumMonstersLeft()));
                     }
             
             }
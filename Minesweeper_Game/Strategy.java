@@ -0,0 +1,127 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Strategy is a way of playing minesweeper without a person,
+ *  for bots and benchmarks.
+ *----------------------------------------------------------------*/
+
+import java.util.Random;
+
+/**
+ * A <i>Strategy</i> picks which cells to reveal next from a Snapshot of what
+ * the player can see. It either lists cells it has proved safe, or makes one
+ * guess. A strategy may keep working memory between calls, so each thread
+ * should have its own, made with create().
+ */
+public interface Strategy {
+
+    /**
+     * Push the cells to reveal next, as row * cols + col, onto moves. Returns
+     * true if every cell pushed is certain to be safe, or false if it is a
+     * guess. Any guessing should use the given generator, so games can be
+     * repeated.
+     */
+    public boolean choose(Snapshot snap, Random random, IntStack moves);
+
+    /**
+     * Make a new strategy by name: "logic" reveals what the Solver proves and
+     * otherwise guesses a hidden cell at random, and "probability" guesses
+     * the cell the ProbabilityEngine finds least likely to be a mine.
+     */
+    public static Strategy create(String name) {
+        return create(name, ProbabilityEngine.FRAME_NANOS);
+    }
+
+    /**
+     * Make a new strategy by name, which may spend about budgetNanos working
+     * out chances for a guess, or as long as it takes if it is
+     * Long.MAX_VALUE. Only with no limit do its moves depend on nothing but
+     * the snapshots and the generator.
+     */
+    public static Strategy create(String name, long budgetNanos) {
+        if (name.equals("logic"))
+            return new Logic();
+        if (name.equals("probability"))
+            return new Probability(budgetNanos);
+        throw new IllegalArgumentException("unknown strategy: " + name);
+    }
+
+    /**
+     * Reveal every cell the Solver proves safe, or guess at random.
+     */
+    public static class Logic implements Strategy {
+        private final Solver solver = new Solver();
+
+        public boolean choose(Snapshot snap, Random random, IntStack moves) {
+            int cols = snap.getCols();
+            solver.solve(snap);
+            for (int k = 0; k < solver.getNumSafe(); k++)
+                moves.push(solver.getSafe(k));
+            if (!moves.isEmpty())
+                return true;
+
+            // Pick a hidden cell that is not known to be a mine, the k'th in
+            // reading order.
+            int candidates = 0, n = snap.getRows() * cols;
+            for (int i = 0; i < n; i++)
+                if (snap.get(i / cols, i % cols) == Snapshot.HIDDEN && !solver.isMine(i / cols, i % cols))
+                    candidates++;
+            int k = random.nextInt(Math.max(1, candidates));
+            for (int i = 0; i < n; i++)
+                if (snap.get(i / cols, i % cols) == Snapshot.HIDDEN && !solver.isMine(i / cols, i % cols)
+                    && k-- == 0) {
+                    moves.push(i);
+                    break;
+                }
+            return false;
+        }
+    }
+
+    /**
+     * Reveal every cell the Solver proves safe, or guess the cell least
+     * likely to be a mine, breaking ties at random.
+     */
+    public static class Probability implements Strategy {
+        private final Solver solver = new Solver();
+        private final ProbabilityEngine engine = new ProbabilityEngine();
+        private final long budgetNanos;
+
+        public Probability() {
+            this(ProbabilityEngine.FRAME_NANOS);
+        }
+
+        public Probability(long budgetNanos) {
+            this.budgetNanos = budgetNanos;
+        }
+
+        public boolean choose(Snapshot snap, Random random, IntStack moves) {
+            int cols = snap.getCols();
+            solver.solve(snap);
+            for (int k = 0; k < solver.getNumSafe(); k++)
+                moves.push(solver.getSafe(k));
+            if (!moves.isEmpty())
+                return true;
+
+            engine.compute(snap, budgetNanos);
+            int pick = -1, ties = 0;
+            double lowest = 2.0;
+            for (int i = 0; i < snap.getRows() * cols; i++) {
+                if (snap.get(i / cols, i % cols) != Snapshot.HIDDEN)
+                    continue;
+                double p = engine.getProbability(i / cols, i % cols);
+                if (p < lowest) {
+                    lowest = p;
+                    pick = i;
+                    ties = 1;
+                } else if (p == lowest && random.nextInt(++ties) == 0) {
+                    pick = i;
+                }
+            }
+            if (pick >= 0)
+                moves.push(pick);
+            return false;
+        }
+    }
+}
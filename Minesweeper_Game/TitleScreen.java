@@ -23,11 +23,21 @@ import java.awt.Color;
 public class TitleScreen extends Window implements EventListener {
 
     // The user's choice. Uses "quit" as the default if nothing else is chosen.
-    // Possible values are "quit", "easy", "medium", and "hard".
+    // Possible values are "quit", "easy", "medium", "hard", "SecretGame" and
+    // "endless".
     private String selection = "quit";
 
     // Buttons for the different options.
-    private Button easy, okay, hard, SecretGame, quit;
+    private Button easy, okay, hard, SecretGame, endless, quit, size;
+
+    /**
+     * Board sizes the user can pick from, as {rows, columns}. The first one is
+     * the classic board, which fits on the screen without scrolling.
+     */
+    public static final int[][] SIZES = { {20, 30}, {60, 90}, {200, 300}, {1000, 1000}, {5000, 5000} };
+
+    // Which of the SIZES is currently chosen.
+    private int sizeChoice = 0;
 
     /**
      * Initialize a new title screen. 
@@ -37,12 +47,15 @@ public class TitleScreen extends Window implements EventListener {
 
         setBackgroundColor(Canvas.LIGHT_GRAY);
      
-        // Add all the buttons
-        easy = new Button(280, 110, 160, 40, "1 - Easy");
-        okay = new Button(280, 160, 160, 40, "2 - Medium");
-        hard = new Button(280, 210, 160, 40, "3 - Hard");
-        SecretGame = new Button(280, 260, 160, 40, "4 - Secret Game");
-        quit = new Button(280, 310, 160, 40, "Q - Quit");
+        // Add all the buttons, stacked to stay clear of the border of mines,
+        // which starts at y = 360.
+        easy = new Button(280, 100, 160, 36, "1 - Easy");
+        okay = new Button(280, 142, 160, 36, "2 - Medium");
+        hard = new Button(280, 184, 160, 36, "3 - Hard");
+        SecretGame = new Button(280, 226, 160, 36, "4 - Secret Game");
+        endless = new Button(280, 268, 160, 36, "5 - Endless");
+        quit = new Button(280, 310, 160, 36, "Q - Quit");
+        size = new Button(60, 320, 200, 30, sizeText());
 
         easy.setForegroundColor(Canvas.WHITE);
         easy.setBackgroundColor(Canvas.GREEN.darker());
@@ -65,15 +78,25 @@ public class TitleScreen extends Window implements EventListener {
         SecretGame.setBorderColor(new Color (212, 175, 55));
         }
         
+        endless.setForegroundColor(Canvas.WHITE);
+        endless.setBackgroundColor(Canvas.TURQUOISE.darker());
+        endless.setBorderColor(null);
+
         quit.setForegroundColor(Canvas.WHITE);
         quit.setBackgroundColor(Canvas.RED.darker());
         quit.setBorderColor(null);
 
+        size.setForegroundColor(Canvas.WHITE);
+        size.setBackgroundColor(Canvas.DARK_GRAY);
+        size.setBorderColor(null);
+
         add(easy);
         add(okay);
         add(hard);
         add(SecretGame);
+        add(endless);
         add(quit);
+        add(size);
         
         // Add a title at the top
         Label title = new Label(300, 70, "Minesweeper!");
@@ -151,12 +174,28 @@ public class TitleScreen extends Window implements EventListener {
             selection = "SecretGame";
             hide();
             }
+        } else if (c == '5') {
+            selection = "endless";
+            hide();
+        } else if (c == 's' || c == 'S') {
+            nextSize();
         } else if (c == 'q' || c == 'Q') {
             selection = "quit";
             hide();
         }
     }
 
+    // Move on to the next board size, wrapping around at the end.
+    private void nextSize() {
+        sizeChoice = (sizeChoice + 1) % SIZES.length;
+        size.setText(sizeText());
+    }
+
+    // The text for the board size button.
+    private String sizeText() {
+        return "S - Size: " + SIZES[sizeChoice][0] + " x " + SIZES[sizeChoice][1];
+    }
+
     /**
      * Respond to a mouse click. This function will be called each time the user
      * clicks on the title window. The x, y parameters indicate the screen
@@ -184,6 +223,11 @@ public class TitleScreen extends Window implements EventListener {
                     selection = "SecretGame";
                     hide();
                 }                               
+            } else if (endless.containsPoint(x, y)) {
+                selection = "endless";
+                hide();
+            } else if (size.containsPoint(x, y)) {
+                nextSize();
             } else if (quit.containsPoint(x, y)) {
                 selection = "quit";
                 hide();
@@ -199,12 +243,26 @@ public class TitleScreen extends Window implements EventListener {
         return selection;
     }
 
+    /**
+     * Get the number of rows on the board size the user picked.
+     */
+    public int getRows() {
+        return SIZES[sizeChoice][0];
+    }
+
+    /**
+     * Get the number of columns on the board size the user picked.
+     */
+    public int getCols() {
+        return SIZES[sizeChoice][1];
+    }
+
     /**
      * A main() function, for testing.
      */
     public static void main(String args[]) {
         TitleScreen t = new TitleScreen();
         t.showAndAnimate(4);
-        System.out.println("You chose: " + t.getSelection());
+        System.out.println("You chose: " + t.getSelection() + " on a " + t.getRows() + " x " + t.getCols() + " board");
     }
 }
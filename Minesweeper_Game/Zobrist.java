@@ -0,0 +1,272 @@
+/*----------------------------------------------------------------
+ *  Author:   Adam Hall
+ *  Email:    arhall21@g.holycross.edu
+ *  Written:  Oct 16 2026
+ *
+ *  Zobrist keeps 64-bit fingerprints of a board's mines and of
+ *  what the player can see, updated as cells change.
+ *----------------------------------------------------------------*/
+
+/**
+ * A <i>Zobrist</i> object holds Zobrist hashes of a board: one of its layout
+ * (where the mines are) and one of its view (what a Snapshot would show:
+ * the number or mine in each revealed cell, and the flags on hidden ones).
+ * Every cell and thing it can show has a random 64-bit key, and a hash is
+ * the XOR of the keys of everything on the board. Changing a cell just XORs
+ * out its old key and XORs in the new one, so keeping the hashes up to date
+ * costs O(1) per cell that changes, and two boards that look the same have
+ * the same hash wherever they came from.
+ *
+ * The keys are not stored in a table. Each is made when needed by
+ * scrambling the cell's place and the thing it shows with the SplitMix64
+ * finalizer, so a board of any size costs no memory for them, and every
+ * board of the same size uses the same keys.
+ *
+ * Each hash is kept four times over, once for each symmetry of the board:
+ * as it is, flipped top to bottom, flipped left to right, and turned half
+ * way round. The hash for a symmetry uses the key of the cell the symmetry
+ * moves each cell to, so it is the plain hash of the flipped board. The
+ * smallest of the four is the same for all four versions of a board, which
+ * makes it a canonical fingerprint for finding boards that are the same up
+ * to symmetry.
+ *
+ * Nothing is locked. The hashes belong to whichever thread is changing the
+ * board, as the board's bitsets do. The one exception is toggle() into an
+ * array of one's own, which only reads the size of the board, so the bands
+ * of an opening being revealed on several threads (see Openings) can each
+ * add up their changes at once; the thread that owns the board then adds
+ * them together and apply()s them.
+ */
+public class Zobrist {
+
+    /**
+     * The number of symmetries of a rectangular board.
+     */
+    public static final int SYMMETRIES = 4;
+
+    /**
+     * What a key stands for: 0 to 8 for a revealed number, or one of these.
+     */
+    public static final int SHOWN_MINE = 9, FLAG = 10, MINE = 11;
+
+    private final int rows, cols;
+
+    // The hashes of the layout and the view, one for each symmetry.
+    private final long[] layout = new long[SYMMETRIES], view = new long[SYMMETRIES];
+
+    /**
+     * Make the hashes of an empty rows by cols board, with no mines and
+     * every cell hidden. They are all 0.
+     */
+    public Zobrist(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Get the key for a cell showing the given thing, seen through the
+     * given symmetry: bit 0 flips the rows and bit 1 the columns.
+     */
+    public static long key(int rows, int cols, int row, int col, int kind, int symmetry) {
+        int r = (symmetry & 1) != 0 ? rows - 1 - row : row;
+        int c = (symmetry & 2) != 0 ? cols - 1 - col : col;
+        return EndlessBoard.mix64((((long)r * cols + c) << 4 | kind) + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Get the kind of key a Snapshot code stands for in the view hash, or -1
+     * for a hidden cell, which has no key.
+     */
+    public static int kindOf(byte code) {
+        return code >= 0 ? code : code == Snapshot.MINE ? SHOWN_MINE : code == Snapshot.FLAGGED ? FLAG : -1;
+    }
+
+    /**
+     * Put a mine in or take one out of the layout hash.
+     */
+    public void toggleMine(int row, int col) {
+        toggle(layout, row, col, MINE);
+    }
+
+    /**
+     * Put the given thing in or take it out of the view hash. Kinds below 0
+     * (a hidden cell) are ignored.
+     */
+    public void toggleView(int row, int col, int kind) {
+        toggle(view, row, col, kind);
+    }
+
+    /**
+     * The same as toggleView(), but into the given array of SYMMETRIES hashes
+     * instead, to be apply()d later. It can be called from any thread, each
+     * with an array of its own.
+     */
+    public void toggle(long[] hashes, int row, int col, int kind) {
+        if (kind < 0)
+            return;
+        for (int s = 0; s < SYMMETRIES; s++)
+            hashes[s] ^= key(rows, cols, row, col, kind, s);
+    }
+
+    /**
+     * Apply changes to the view added up by toggle().
+     */
+    public void apply(long[] changes) {
+        for (int s = 0; s < SYMMETRIES; s++)
+            view[s] ^= changes[s];
+    }
+
+    /**
+     * Forget the view, as if every cell were hidden again.
+     */
+    public void clearView() {
+        java.util.Arrays.fill(view, 0L);
+    }
+
+    /**
+     * Get the hash of where the mines are.
+     */
+    public long getLayoutHash() {
+        return layout[0];
+    }
+
+    /**
+     * Get the hash of what the player can see. It is the same as the hash of
+     * a Snapshot of the board; see Snapshot.getHash().
+     */
+    public long getViewHash() {
+        return view[0];
+    }
+
+    /**
+     * Get the hash of the whole state of the board, mines and view together.
+     */
+    public long getStateHash() {
+        return layout[0] ^ EndlessBoard.mix64(view[0]);
+    }
+
+    /**
+     * Get a fingerprint of the layout that is the same for all four
+     * symmetries of the board, and includes its size.
+     */
+    public long getCanonicalLayoutHash() {
+        return canonical(layout, new long[SYMMETRIES]);
+    }
+
+    /**
+     * Get a fingerprint of the whole state, mines and view together, that is
+     * the same for all four symmetries of the board.
+     */
+    public long getCanonicalStateHash() {
+        return canonical(layout, view);
+    }
+
+    // The smallest over the symmetries of the layout hash combined with the
+    // view hash, mixed with the size of the board.
+    private long canonical(long[] a, long[] b) {
+        long best = Long.MAX_VALUE;
+        for (int s = 0; s < SYMMETRIES; s++)
+            best = Math.min(best, a[s] ^ EndlessBoard.mix64(b[s]));
+        return EndlessBoard.mix64(best ^ ((long)rows << 32 | cols));
+    }
+
+    /**
+     * A main() function, for testing. It plays random games on boards of a
+     * few sizes, and checks that the hashes kept up to date match ones made
+     * from scratch, that a Snapshot has the same view hash as its board, and
+     * that the canonical hashes of the four flipped copies of a board agree
+     * while different boards do not collide.
+     */
+    public static void main(String args[]) {
+        java.util.Random random = new java.util.Random(1);
+        java.util.HashSet<Long> seen = new java.util.HashSet<Long>();
+        int checks = 0;
+        for (int t = 0; t < 500; t++) {
+            int rows = 2 + random.nextInt(30), cols = 2 + random.nextInt(100);
+            Board board = new Board(rows, cols);
+            board.deployMines(random.nextInt(rows * cols / 4 + 1), new java.util.Random(t));
+            if (!seen.add(board.getZobrist().getCanonicalLayoutHash()))
+                throw new IllegalStateException("two layouts have the same fingerprint");
+            for (int move = 0; move < 40; move++) {
+                int r = random.nextInt(rows), c = random.nextInt(cols);
+                switch (random.nextInt(4)) {
+                case 0:
+                    if (board.reveal(r, c) && board.coastIsClear(r, c) && !board.isMine(r, c))
+                        board.uncoverNeighboringBlanks(r, c);
+                    break;
+                case 1:
+                    board.makeFlag(r, c);
+                    break;
+                case 2:
+                    board.removeFlag(r, c);
+                    break;
+                default:
+                    board.makeMine(r, c);
+                }
+                Snapshot snap = new Snapshot(board);
+                if (snap.getHash() != board.getZobrist().getViewHash()
+                    || snap.getHash() != fromScratch(snap))
+                    throw new IllegalStateException("board " + t + ": the view hash drifted at move " + move);
+                checks++;
+            }
+
+            // The four flipped copies have the same canonical fingerprint.
+            long canonical = board.getZobrist().getCanonicalStateHash();
+            for (int s = 1; s < SYMMETRIES; s++) {
+                Board copy = flipped(board, s);
+                if (copy.getZobrist().getCanonicalStateHash() != canonical)
+                    throw new IllegalStateException("board " + t + ": symmetry " + s + " changed the fingerprint");
+            }
+        }
+        StdOut.printf("Hashes matched after %d changes, over %d distinct layouts\n", checks, seen.size());
+
+        // Time a hash update.
+        Board board = new Board(1000, 1000);
+        board.deployMines(150000, new java.util.Random(2));
+        long start = System.nanoTime();
+        int flips = 0;
+        for (int k = 0; k < 2000000; k++) {
+            board.makeFlag(k % 1000, (k / 1000) % 1000);
+            board.removeFlag(k % 1000, (k / 1000) % 1000);
+            flips += 2;
+        }
+        StdOut.printf("%.1f ns per flag change, hash %016x\n",
+                      (System.nanoTime() - start) / (double)flips, board.getZobrist().getViewHash());
+    }
+
+    // The view hash of a snapshot, made from scratch.
+    private static long fromScratch(Snapshot snap) {
+        long h = 0;
+        for (int r = 0; r < snap.getRows(); r++)
+            for (int c = 0; c < snap.getCols(); c++) {
+                int kind = kindOf(snap.get(r, c));
+                if (kind >= 0)
+                    h ^= key(snap.getRows(), snap.getCols(), r, c, kind, 0);
+            }
+        return h;
+    }
+
+    // A copy of a board seen through a symmetry: the same mines, revealed
+    // cells and flags, each moved to where the symmetry puts it.
+    private static Board flipped(Board board, int symmetry) {
+        int rows = board.getRows(), cols = board.getCols();
+        Board copy = new Board(rows, cols);
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) {
+                int rr = (symmetry & 1) != 0 ? rows - 1 - r : r;
+                int cc = (symmetry & 2) != 0 ? cols - 1 - c : c;
+                if (board.isMine(r, c))
+                    copy.makeMine(rr, cc);
+            }
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) {
+                int rr = (symmetry & 1) != 0 ? rows - 1 - r : r;
+                int cc = (symmetry & 2) != 0 ? cols - 1 - c : c;
+                if (board.isRevealed(r, c))
+                    copy.reveal(rr, cc);
+                if (board.isFlag(r, c))
+                    copy.makeFlag(rr, cc);
+            }
+        return copy;
+    }
+}